@@ -0,0 +1,40 @@
+#!/bin/bash
+
+# Boots the demo on the Spring MVC stack and then on the reactive stack, and
+# runs the same HTTP load against each.
+# Usage: ./compare-stacks.sh [concurrency] [seconds]
+
+cd "$(dirname "$0")"
+
+CONCURRENCY=${1:-256}
+SECONDS_PER_RUN=${2:-30}
+PORT=${PORT:-3090}
+APP_JAR=../target/demo-java-1.0.0.jar
+
+if [ ! -f "$APP_JAR" ]; then
+    echo "📦 Building application..."
+    (cd .. && mvn -q clean package -DskipTests) || { echo "❌ Failed to build application"; exit 1; }
+fi
+
+if [ ! -f target/benchmarks.jar ]; then
+    echo "📦 Building benchmarks..."
+    mvn -q clean package || { echo "❌ Failed to build benchmarks"; exit 1; }
+fi
+
+for PROFILE in default reactive; do
+    echo ""
+    echo "🚀 Starting demo ($PROFILE stack) on port $PORT..."
+    PORT=$PORT java -jar "$APP_JAR" --spring.profiles.active=$PROFILE > "target/$PROFILE.log" 2>&1 &
+    APP_PID=$!
+
+    for i in $(seq 1 60); do
+        curl -s "http://localhost:$PORT/health" > /dev/null && break
+        sleep 0.5
+    done
+
+    java -cp target/benchmarks.jar com.vortexsoftware.demo.bench.StackComparison \
+        "http://localhost:$PORT" "$CONCURRENCY" "$SECONDS_PER_RUN"
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null
+done
@@ -0,0 +1,49 @@
+#!/bin/bash
+
+# End-to-end load test: starts the local Vortex API simulator and the demo
+# (pointed at the simulator), then replays user sessions with LoadDriver.
+# Usage: ./load-test.sh [sessions] [duration]
+#
+# Simulator behaviour is set with SIMULATOR_ARGS, e.g.
+#   SIMULATOR_ARGS="--latency-median=20ms --latency-p99=400ms --error-rate=0.02" ./load-test.sh 500 120s
+# and the demo's own configuration with APP_ARGS, e.g.
+#   APP_ARGS="--spring.profiles.active=reactive" ./load-test.sh
+
+cd "$(dirname "$0")"
+
+SESSIONS=${1:-200}
+DURATION=${2:-60s}
+PORT=${PORT:-3090}
+SIMULATOR_PORT=${SIMULATOR_PORT:-4010}
+APP_JAR=../target/demo-java-1.0.0.jar
+
+if [ ! -f "$APP_JAR" ]; then
+    echo "📦 Building application..."
+    (cd .. && mvn -q clean package -DskipTests) || { echo "❌ Failed to build application"; exit 1; }
+fi
+
+if [ ! -f target/benchmarks.jar ]; then
+    echo "📦 Building benchmarks..."
+    mvn -q clean package || { echo "❌ Failed to build benchmarks"; exit 1; }
+fi
+
+echo "🛰  Starting Vortex API simulator on port $SIMULATOR_PORT..."
+java -cp target/benchmarks.jar com.vortexsoftware.demo.bench.VortexApiSimulator \
+    --port=$SIMULATOR_PORT $SIMULATOR_ARGS > target/simulator.log 2>&1 &
+SIMULATOR_PID=$!
+
+echo "🚀 Starting demo on port $PORT..."
+# Every simulated user logs in from this host, so the per-client login rate limit is off
+PORT=$PORT java -jar "$APP_JAR" --vortex.api.base-url=http://localhost:$SIMULATOR_PORT \
+    --auth.throttle.enabled=false $APP_ARGS > target/app.log 2>&1 &
+APP_PID=$!
+
+trap 'kill $APP_PID $SIMULATOR_PID 2>/dev/null' EXIT
+
+for i in $(seq 1 60); do
+    curl -s "http://localhost:$PORT/health" > /dev/null && break
+    sleep 0.5
+done
+
+java -cp target/benchmarks.jar com.vortexsoftware.demo.bench.LoadDriver \
+    --base-url=http://localhost:$PORT --sessions=$SESSIONS --duration=$DURATION $DRIVER_ARGS
@@ -0,0 +1,22 @@
+#!/bin/bash
+
+# Runs the JMH benchmarks with the GC profiler and writes machine-readable results.
+# Extra arguments are passed to JMH, e.g. a benchmark filter: ./run.sh SessionBenchmark
+
+cd "$(dirname "$0")"
+
+if [ ! -f target/benchmarks.jar ]; then
+    echo "📦 Building benchmarks..."
+    mvn -q clean package
+    if [ $? -ne 0 ]; then
+        echo "❌ Failed to build benchmarks"
+        exit 1
+    fi
+fi
+
+RESULT_FILE=${RESULT_FILE:-target/jmh-result.json}
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT_FILE" "$@"
+
+echo ""
+echo "📊 Results written to $RESULT_FILE"
@@ -0,0 +1,86 @@
+package com.vortexsoftware.demo.bench;
+
+import com.vortexsoftware.demo.audit.AuditLog;
+import com.vortexsoftware.demo.credential.CredentialEngine;
+import com.vortexsoftware.demo.directory.InMemoryUserDirectory;
+import com.vortexsoftware.demo.directory.UserDirectory;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import com.vortexsoftware.demo.revocation.SessionRevocations;
+import com.vortexsoftware.demo.service.AuthMetrics;
+import com.vortexsoftware.demo.service.AuthService;
+import com.vortexsoftware.demo.service.SessionCache;
+import com.vortexsoftware.demo.service.SharedSessionTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared benchmark fixtures built from the demo application's own classes
+ */
+final class Fixtures {
+
+    static final String PASSWORD = "password123";
+
+    private Fixtures() {}
+
+    static CredentialEngine credentialEngine() {
+        return new CredentialEngine("sha256", 1);
+    }
+
+    /**
+     * Users shaped like the built-in demo users, all with {@link #PASSWORD}
+     */
+    static List<DemoUser> users(int count, CredentialEngine credentialEngine) {
+        String password = credentialEngine.encode(PASSWORD);
+        List<DemoUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new DemoUser(
+                    "user-" + i,
+                    "user" + i + "@example.com",
+                    password,
+                    i % 10 == 0,
+                    i % 10 == 0 ? "admin" : "user",
+                    List.of(
+                            new UserGroup("team", "team-" + (i % 50), "Team " + (i % 50)),
+                            new UserGroup("organization", "org-1", "Acme Corp")
+                    )
+            ));
+        }
+        return users;
+    }
+
+    static UserDirectory directory(List<DemoUser> users) {
+        return new InMemoryUserDirectory(users);
+    }
+
+    static AuthService authService(UserDirectory directory, long sessionCacheSize, CredentialEngine credentialEngine) {
+        return authService(directory, sessionCacheSize, credentialEngine, "jwt");
+    }
+
+    static AuthService authService(UserDirectory directory, long sessionCacheSize, CredentialEngine credentialEngine,
+                                   String tokenFormat) {
+        return new AuthService(directory, new SessionCache(sessionCacheSize), new SharedSessionTable(null, 0),
+                new SessionRevocations(null, 100_000, Duration.ofMinutes(1), Duration.ofSeconds(1)), credentialEngine,
+                new AuthMetrics(new SimpleMeterRegistry()), new AuditLog(null, 0, 0, null, 0, null), tokenFormat);
+    }
+
+    /**
+     * Request carrying the session cookie among the usual analytics and preference cookies
+     */
+    static MockHttpServletRequest requestWithSession(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.setCookies(
+                new Cookie("_ga", "GA1.1.1234567890.1700000000"),
+                new Cookie("_gid", "GA1.1.987654321.1700000000"),
+                new Cookie("theme", "dark"),
+                new Cookie("session", token),
+                new Cookie("locale", "en-US")
+        );
+        return request;
+    }
+}
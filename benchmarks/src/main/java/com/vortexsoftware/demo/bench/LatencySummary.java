@@ -0,0 +1,24 @@
+package com.vortexsoftware.demo.bench;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Formats HdrHistogram latency percentiles (recorded in nanoseconds)
+ */
+final class LatencySummary {
+
+    private LatencySummary() {}
+
+    static String format(Histogram latency) {
+        return String.format("p50=%.2fms  p90=%.2fms  p99=%.2fms  p99.9=%.2fms  max=%.2fms",
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,205 @@
+package com.vortexsoftware.demo.bench;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays realistic user sessions against the demo and reports per-route latency
+ *
+ * Each simulated user loops through: login, {@code /api/auth/me}, Vortex JWT,
+ * invitations by target, invitations by group, {@code /api/auth/me} again and
+ * logout. Pair it with {@link VortexApiSimulator} (see {@code load-test.sh})
+ * to exercise the full flow offline.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.vortexsoftware.demo.bench.LoadDriver \
+ *     --base-url=http://localhost:8080 --sessions=200 --duration=60s --warmup=10s --think=0ms
+ * </pre>
+ *
+ * {@code users} is a comma-separated list of {@code email:password} logins (defaults to
+ * the two built-in demo users); entries without a password use {@code password}.
+ */
+public class LoadDriver {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<String> users;
+    private final String defaultPassword;
+    private final Executor think;
+    private final long measureFrom;
+    private final long deadline;
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    LoadDriver(String baseUrl, List<String> users, String defaultPassword, Duration think, Duration warmup,
+               Duration duration) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.defaultPassword = defaultPassword;
+        this.think = CompletableFuture.delayedExecutor(think.toNanos(), TimeUnit.NANOSECONDS);
+        this.measureFrom = System.nanoTime() + warmup.toNanos();
+        this.deadline = measureFrom + duration.toNanos();
+    }
+
+    public static void main(String[] args) {
+        Args options = new Args(args);
+        int sessions = options.integer("sessions", 200);
+        Duration duration = options.duration("duration", Duration.ofSeconds(60));
+
+        LoadDriver driver = new LoadDriver(
+                options.string("base-url", "http://localhost:8080"),
+                List.of(options.string("users", "admin@example.com:password123,user@example.com:userpass").split(",")),
+                options.string("password", "password123"),
+                options.duration("think", Duration.ZERO),
+                options.duration("warmup", Duration.ofSeconds(10)),
+                duration);
+
+        CompletableFuture<?>[] users = new CompletableFuture<?>[sessions];
+        for (int i = 0; i < sessions; i++) {
+            users[i] = driver.session(i);
+        }
+        CompletableFuture.allOf(users).join();
+
+        driver.report(sessions, duration);
+    }
+
+    /**
+     * One simulated user: log in, browse, log out, repeat until the deadline
+     */
+    private CompletableFuture<Void> session(int user) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String[] login = users.get(user % users.size()).split(":", 2);
+        String email = login[0];
+        String password = login.length > 1 ? login[1] : defaultPassword;
+        String target = URLEncoder.encode(email, StandardCharsets.UTF_8);
+
+        return login(email, password)
+                .thenCompose(cookie -> cookie
+                        .map(session -> step("GET /api/auth/me", get("/api/auth/me", session))
+                                .thenCompose(ignored -> step("POST /api/vortex/jwt", post("/api/vortex/jwt", session, "")))
+                                .thenCompose(ignored -> step("GET /api/vortex/invitations",
+                                        get("/api/vortex/invitations?targetType=email&targetValue=" + target, session)))
+                                .thenCompose(ignored -> step("GET /api/vortex/invitations/by-group",
+                                        get("/api/vortex/invitations/by-group/team/team-1", session)))
+                                .thenCompose(ignored -> step("GET /api/auth/me", get("/api/auth/me", session)))
+                                .thenCompose(ignored -> step("POST /api/auth/logout", post("/api/auth/logout", session, ""))))
+                        // Failed login: back off briefly rather than hammering the login route
+                        .orElseGet(() -> CompletableFuture.runAsync(() -> {},
+                                CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS))))
+                .thenCompose(ignored -> session(user));
+    }
+
+    private CompletableFuture<Optional<String>> login(String email, String password) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        return send("POST /api/auth/login", post("/api/auth/login", null, body))
+                .thenApply(response -> response
+                        .filter(r -> r.statusCode() == 200)
+                        .flatMap(r -> r.headers().firstValue("Set-Cookie"))
+                        .map(header -> header.split(";", 2)[0]));
+    }
+
+    /**
+     * Send one request of a session, then pause for the think time
+     */
+    private CompletableFuture<Void> step(String route, HttpRequest request) {
+        return send(route, request).thenRunAsync(() -> {}, think);
+    }
+
+    private CompletableFuture<Optional<HttpResponse<Void>>> send(String route, HttpRequest request) {
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    long end = System.nanoTime();
+                    if (start >= measureFrom && end <= deadline) {
+                        routes.computeIfAbsent(route, r -> new RouteStats())
+                                .record(end - start, response != null ? response.statusCode() : -1);
+                    }
+                    return Optional.ofNullable(response);
+                });
+    }
+
+    private HttpRequest get(String path, String cookie) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String cookie, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder.build();
+    }
+
+    private void report(int sessions, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%s  sessions=%d  duration=%ds%n%n", baseUrl, sessions, duration.toSeconds());
+
+        long total = 0;
+        for (Map.Entry<String, RouteStats> entry : new TreeMap<>(routes).entrySet()) {
+            RouteStats stats = entry.getValue();
+            Histogram latency = stats.latency;
+            total += latency.getTotalCount();
+
+            System.out.printf("%-40s %8.0f req/s  %s%n", entry.getKey(), latency.getTotalCount() / seconds,
+                    LatencySummary.format(latency));
+            Map<Integer, Long> failures = stats.failures();
+            if (!failures.isEmpty()) {
+                System.out.printf("%-40s failures by status (-1 = no response): %s%n", "", failures);
+            }
+        }
+
+        System.out.printf("%n%-40s %8.0f req/s%n", "total", total / seconds);
+    }
+
+    /**
+     * Latency of every response on one route, and failure counts by status code
+     */
+    private static class RouteStats {
+
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(nanos, latency.getHighestTrackableValue()));
+            if (status < 200 || status >= 400) {
+                statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            }
+        }
+
+        Map<Integer, Long> failures() {
+            Map<Integer, Long> failures = new TreeMap<>();
+            statuses.forEach((status, count) -> failures.put(status, count.sum()));
+            return failures;
+        }
+    }
+}
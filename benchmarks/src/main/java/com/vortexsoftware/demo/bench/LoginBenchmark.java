@@ -0,0 +1,89 @@
+package com.vortexsoftware.demo.bench;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password login across growing user counts
+ *
+ * {@code legacyAuthenticateUser} reproduces the original implementation (a
+ * stream scan over the user list plus a hex-string SHA-256 compare) so the
+ * indexed directory and credential engine can be measured against it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    @Param({"10", "10000", "100000"})
+    public int userCount;
+
+    private AuthService authService;
+    private List<DemoUser> users;
+    private String email;
+
+    @Setup
+    public void setUp() {
+        var credentialEngine = Fixtures.credentialEngine();
+        users = Fixtures.users(userCount, credentialEngine);
+        authService = Fixtures.authService(Fixtures.directory(users), 10_000, credentialEngine);
+        email = users.get(userCount - 1).getEmail();
+    }
+
+    @Benchmark
+    public Optional<DemoUser> authenticateUser() {
+        return authService.authenticateUser(email, Fixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<DemoUser> authenticateUnknownUser() {
+        return authService.authenticateUser("nobody@example.com", Fixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<DemoUser> legacyAuthenticateUser() {
+        String hashedPassword = legacyHashPassword(Fixtures.PASSWORD);
+        return users.stream()
+                .filter(user -> email.equals(user.getEmail()))
+                .filter(user -> hashedPassword.equals(user.getPassword()))
+                .findFirst();
+    }
+
+    private static String legacyHashPassword(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hash) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) {
+                    hexString.append('0');
+                }
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to hash password", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.vortexsoftware.demo.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexsoftware.demo.controller.HealthController;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.PublicUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public user views, Jackson serialization of the controllers' response maps
+ * and the pre-serialized {@code /health} response
+ *
+ * Most reuse the user's cached view; the {@code *Uncached} variants build a
+ * one-shot view per call, as for users decoded per lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DemoUser user;
+    private List<DemoUser> users;
+    private HealthController healthController;
+    private String healthEtag;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        users = Fixtures.users(2, Fixtures.credentialEngine());
+        user = users.get(0);
+        healthController = new HealthController(objectMapper);
+        healthEtag = healthController.healthCheck(null).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public PublicUser publicUser() {
+        return user.toPublicUser();
+    }
+
+    @Benchmark
+    public PublicUser publicUserUncached() {
+        return PublicUser.of(user);
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of(
+                "success", true,
+                "user", user.toPublicUser()
+        ));
+    }
+
+    @Benchmark
+    public byte[] currentUserResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("user", user.toPublicUser()));
+    }
+
+    @Benchmark
+    public byte[] currentUserResponseUncached() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("user", PublicUser.of(user)));
+    }
+
+    @Benchmark
+    public byte[] demoUsersResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("users", users.stream().map(DemoUser::toPublicUser).toList()));
+    }
+
+    /**
+     * {@code GET /health} as served: the pre-serialized body
+     */
+    @Benchmark
+    public ResponseEntity<?> healthResponse() {
+        return healthController.healthCheck(null);
+    }
+
+    /**
+     * {@code GET /health} with a matching {@code If-None-Match}: 304
+     */
+    @Benchmark
+    public ResponseEntity<?> healthResponseNotModified() {
+        return healthController.healthCheck(healthEtag);
+    }
+}
@@ -0,0 +1,71 @@
+package com.vortexsoftware.demo.bench;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session JWT mint, verify and per-request user resolution
+ *
+ * {@code sessionCacheSize = 0} disables the verified-session cache, so every
+ * verification pays the full signature check and claim parse.
+ * {@code tokenFormat} compares signed JWTs with compact session tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+
+    @Param({"10000", "0"})
+    public long sessionCacheSize;
+
+    @Param({"jwt", "compact"})
+    public String tokenFormat;
+
+    private AuthService authService;
+    private DemoUser user;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        var credentialEngine = Fixtures.credentialEngine();
+        var users = Fixtures.users(100, credentialEngine);
+        authService = Fixtures.authService(Fixtures.directory(users), sessionCacheSize, credentialEngine, tokenFormat);
+        user = users.get(42);
+        token = authService.createSessionJWT(user);
+        request = Fixtures.requestWithSession(token);
+    }
+
+    @Benchmark
+    public String createSessionJWT() {
+        return authService.createSessionJWT(user);
+    }
+
+    @Benchmark
+    public Optional<DemoUser> verifySessionJWT() {
+        return authService.verifySessionJWT(token);
+    }
+
+    @Benchmark
+    public Optional<DemoUser> getCurrentUser() {
+        return authService.getSessionToken(request).flatMap(authService::verifySessionJWT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.vortexsoftware.demo.bench;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP load comparison between the Spring MVC and reactive stacks
+ *
+ * Logs in once, then keeps {@code concurrency} requests in flight against
+ * the session-authenticated routes for {@code duration} seconds and prints
+ * throughput and latency percentiles. Run it once against each stack (see
+ * {@code compare-stacks.sh}); it only talks HTTP, so it doesn't care which
+ * one is serving.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.vortexsoftware.demo.bench.StackComparison [baseUrl] [concurrency] [seconds]
+ * </pre>
+ */
+public class StackComparison {
+
+    private static final List<String> ROUTES = List.of(
+            "/api/auth/me",
+            "/api/demo/protected",
+            "/api/demo/users",
+            "/health"
+    );
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:3000";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String cookie = login(client, baseUrl);
+
+        // Warm up both the server and the client's connection pool before measuring
+        run(client, baseUrl, cookie, concurrency, Math.max(1, seconds / 5));
+        Result result = run(client, baseUrl, cookie, concurrency, seconds);
+
+        Histogram latency = result.latency();
+        System.out.printf("%s  concurrency=%d  duration=%ds%n", baseUrl, concurrency, seconds);
+        System.out.printf("  requests    %d (%d errors)%n", latency.getTotalCount(), result.errors());
+        System.out.printf("  throughput  %.0f req/s%n", latency.getTotalCount() / (double) seconds);
+        System.out.printf("  latency     %s%n", LatencySummary.format(latency));
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"admin@example.com\",\"password\":\"password123\"}"))
+                .build();
+
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        return response.headers().firstValue("Set-Cookie")
+                .map(header -> header.split(";", 2)[0])
+                .orElseThrow(() -> new IllegalStateException("Login did not set a session cookie"));
+    }
+
+    private static Result run(HttpClient client, String baseUrl, String cookie, int concurrency, int seconds) {
+        List<HttpRequest> requests = ROUTES.stream()
+                .map(route -> HttpRequest.newBuilder(URI.create(baseUrl + route))
+                        .header("Cookie", cookie)
+                        .timeout(Duration.ofSeconds(10))
+                        .GET()
+                        .build())
+                .toList();
+
+        Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(10), 3);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = loop(client, requests, i, deadline, latency, errors);
+        }
+        CompletableFuture.allOf(workers).join();
+        return new Result(latency, errors.get());
+    }
+
+    /**
+     * One in-flight request at a time, cycling through the routes until the deadline
+     */
+    private static CompletableFuture<Void> loop(HttpClient client, List<HttpRequest> requests, int next,
+                                                long deadline, Histogram latency, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long start = System.nanoTime();
+        return client.sendAsync(requests.get(next % requests.size()), HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    } else {
+                        latency.recordValue(Math.min(System.nanoTime() - start, latency.getHighestTrackableValue()));
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, requests, next + 1, deadline, latency, errors));
+    }
+
+    private record Result(Histogram latency, long errors) {}
+}
@@ -0,0 +1,215 @@
+package com.vortexsoftware.demo.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Vortex API
+ *
+ * Serves the invitation endpoints the SDK calls, with a log-normal latency
+ * distribution and injectable failures, so the demo can be load tested
+ * end to end without touching the real service. Responses are synthetic:
+ * every target and group has {@code invitations-per-target} invitations with
+ * stable ids, and writes always succeed.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.vortexsoftware.demo.bench.VortexApiSimulator \
+ *     --port=4010 --latency-median=40ms --latency-p99=250ms --error-rate=0.01 --stall-rate=0.001
+ * </pre>
+ *
+ * <ul>
+ *   <li>{@code latency-median}, {@code latency-p99}: shape of the response time distribution</li>
+ *   <li>{@code error-rate}: fraction of calls answered with a 500</li>
+ *   <li>{@code stall-rate}: fraction of calls held for {@code stall} (default 30s), to exercise deadlines</li>
+ * </ul>
+ *
+ * Matching is on the path after {@code /invitations}, so any API prefix works.
+ */
+public class VortexApiSimulator {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final double mu;
+    private final double sigma;
+    private final double errorRate;
+    private final double stallRate;
+    private final Duration stall;
+    private final int invitationsPerTarget;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    VortexApiSimulator(Duration latencyMedian, Duration latencyP99, double errorRate, double stallRate,
+                       Duration stall, int invitationsPerTarget) {
+        this.mu = Math.log(Math.max(1, latencyMedian.toNanos()));
+        this.sigma = Math.max(0, (Math.log(Math.max(1, latencyP99.toNanos())) - mu) / Z_99);
+        this.errorRate = errorRate;
+        this.stallRate = stallRate;
+        this.stall = stall;
+        this.invitationsPerTarget = invitationsPerTarget;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Args options = new Args(args);
+        int port = options.integer("port", 4010);
+
+        VortexApiSimulator simulator = new VortexApiSimulator(
+                options.duration("latency-median", Duration.ofMillis(40)),
+                options.duration("latency-p99", Duration.ofMillis(250)),
+                options.decimal("error-rate", 0.0),
+                options.decimal("stall-rate", 0.0),
+                options.duration("stall", Duration.ofSeconds(30)),
+                options.integer("invitations-per-target", 3));
+
+        // Handlers sleep to simulate latency, so every request gets its own thread
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "vortex-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.createContext("/", simulator::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        System.out.printf("Vortex API simulator listening on http://localhost:%d%n", port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            System.out.printf("Served %d requests (%d injected errors)%n", simulator.requests.get(), simulator.errors.get());
+        }));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(random.nextDouble() < stallRate ? stall.toNanos() : sampleLatencyNanos(random));
+
+            if (random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 500, "{\"error\":\"Simulated Vortex API error\"}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            int invitations = path.indexOf("/invitations");
+            if (invitations < 0) {
+                send(exchange, 404, "{\"error\":\"Not found\"}");
+                return;
+            }
+
+            String[] segments = path.substring(invitations + "/invitations".length()).split("/");
+            String method = exchange.getRequestMethod();
+            send(exchange, 200, respond(method, segments, query(exchange)));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Response body for an invitation endpoint; {@code segments} is the path after {@code /invitations}
+     */
+    private String respond(String method, String[] segments, Map<String, String> query) {
+        // "", "" | "", "{id}" | "", "{id}", "reinvite" | "", "accept" | "", "by-group", "{type}", "{id}"
+        if (segments.length == 0 || (segments.length == 1 && segments[0].isEmpty())) {
+            String targetType = query.getOrDefault("targetType", "email");
+            String targetValue = query.getOrDefault("targetValue", "unknown@example.com");
+            return invitationList(targetType + ":" + targetValue, targetType, targetValue, "team", "team-1");
+        }
+
+        if (segments.length >= 4 && segments[1].equals("by-group")) {
+            if (method.equals("DELETE")) {
+                return "{}";
+            }
+            return invitationList(segments[2] + ":" + segments[3], "email", "member@example.com", segments[2], segments[3]);
+        }
+
+        if (segments[1].equals("accept")) {
+            return invitation("accepted", "email", "member@example.com", "team", "team-1", "accepted");
+        }
+
+        if (method.equals("DELETE")) {
+            return "{}";
+        }
+
+        return invitation(segments[1], "email", "member@example.com", "team", "team-1", "delivered");
+    }
+
+    private String invitationList(String seed, String targetType, String targetValue, String groupType, String groupId) {
+        StringJoiner list = new StringJoiner(",", "{\"invitations\":[", "]}");
+        for (int i = 0; i < invitationsPerTarget; i++) {
+            String id = "inv-" + Integer.toHexString((seed + "#" + i).hashCode());
+            list.add(invitation(id, targetType, targetValue, groupType, groupId, "delivered"));
+        }
+        return list.toString();
+    }
+
+    private static String invitation(String id, String targetType, String targetValue,
+                                     String groupType, String groupId, String status) {
+        return "{\"id\":\"" + id + "\","
+                + "\"accountId\":\"acct-demo\","
+                + "\"status\":\"" + status + "\","
+                + "\"invitationType\":\"single_use\","
+                + "\"target\":[{\"type\":\"" + targetType + "\",\"value\":\"" + targetValue + "\"}],"
+                + "\"groups\":[{\"type\":\"" + groupType + "\",\"groupId\":\"" + groupId + "\",\"name\":\"" + groupId + "\"}],"
+                + "\"createdAt\":\"" + Instant.EPOCH + "\","
+                + "\"deactivated\":false,"
+                + "\"deliveryCount\":1,"
+                + "\"views\":0}";
+    }
+
+    private long sampleLatencyNanos(ThreadLocalRandom random) {
+        return (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
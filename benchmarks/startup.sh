@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# Startup benchmark: time from process launch to the first successful /health
+# response, and resident memory at that point, for each way of running the demo:
+#
+#   jvm           java -jar on the fat jar
+#   jvm-cds       unpacked jar with an AppCDS archive
+#   jvm-aot-cds   unpacked jar with Spring AOT bean definitions and an AppCDS archive
+#   native        GraalVM native executable (only if target/demo-java exists;
+#                 build it with: mvn -Pnative native:compile)
+#
+# Usage: ./startup.sh [runs]   (reports the median of each variant)
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-3091}
+WORK=target/startup
+MAIN=com.vortexsoftware.demo.DemoJavaApplication
+JAR=target/demo-java-1.0.0.jar
+
+echo "📦 Building application with Spring AOT..."
+mvn -q -Paot package -DskipTests > /dev/null || { echo "❌ Failed to build application"; exit 1; }
+
+rm -rf "$WORK" && mkdir -p "$WORK/app"
+(cd "$WORK/app" && unzip -q "../../../$JAR")
+CP="$WORK/app/BOOT-INF/classes:$(ls "$WORK"/app/BOOT-INF/lib/*.jar | sort | paste -sd: -)"
+
+# AppCDS archives come from a training run that exits once the context is refreshed
+train() {
+    local archive=$1; shift
+    echo "🏋️  Training $archive..."
+    PORT=$PORT java -XX:ArchiveClassesAtExit="$archive" -Dspring.context.exit=onRefresh "$@" \
+        -cp "$CP" $MAIN > "$WORK/train.log" 2>&1
+}
+
+train "$WORK/jvm.jsa"
+train "$WORK/jvm-aot.jsa" -Dspring.aot.enabled=true
+
+# One launch: prints "<ms to first /health> <RSS in MB>"
+measure() {
+    local start end rss pid
+    start=$(date +%s%N)
+    PORT=$PORT "$@" > "$WORK/run.log" 2>&1 &
+    pid=$!
+
+    until curl -sf "http://localhost:$PORT/health" > /dev/null; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "failed -"
+            return
+        fi
+        sleep 0.005
+    done
+    end=$(date +%s%N)
+    rss=$(awk '/VmRSS/ { print $2 }' /proc/$pid/status)
+
+    kill $pid
+    wait $pid 2> /dev/null
+    echo "$(( (end - start) / 1000000 )) $(( rss / 1024 ))"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+run_variant() {
+    local name=$1; shift
+    local results=()
+    for i in $(seq 1 "$RUNS"); do
+        results+=("$(measure "$@")")
+    done
+    local millis rss
+    millis=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+    rss=$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)
+    printf "%-14s %8s ms %8s MB\n" "$name" "$millis" "$rss"
+}
+
+echo ""
+printf "%-14s %11s %11s\n" "variant" "to /health" "RSS"
+run_variant jvm java -jar "$JAR"
+run_variant jvm-cds java -XX:SharedArchiveFile="$WORK/jvm.jsa" -cp "$CP" $MAIN
+run_variant jvm-aot-cds java -XX:SharedArchiveFile="$WORK/jvm-aot.jsa" -Dspring.aot.enabled=true -cp "$CP" $MAIN
+if [ -x target/demo-java ]; then
+    run_variant native target/demo-java
+else
+    echo "native         (skipped: build with mvn -Pnative native:compile)"
+fi
@@ -1,14 +1,17 @@
 package com.vortexsoftware.demo;
 
+import com.vortexsoftware.demo.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.context.event.EventListener;
 
 /**
  * Main Spring Boot application for Vortex Java SDK Demo
  */
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class DemoJavaApplication {
 
     public static void main(String[] args) {
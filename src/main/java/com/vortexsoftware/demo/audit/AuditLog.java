@@ -0,0 +1,436 @@
+package com.vortexsoftware.demo.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail of auth activity and Vortex operations
+ *
+ * {@link #record} runs on the request thread and only claims a slot in a
+ * fixed-size ring buffer (one CAS) and stores the references it is given; it
+ * never blocks, allocates or does I/O. Callers pass the parts of an event (an
+ * operation and its group) rather than building strings, and the writer
+ * encodes them. A single background writer drains the buffer in batches and
+ * appends the events as NDJSON to rolling memory-mapped segment files
+ * ({@code audit-<epochMillis>.ndjson}) in {@code audit.directory}, keeping the
+ * newest {@code audit.max-segments}. A segment is truncated to its contents
+ * when it is rolled or the application stops; one cut short by a crash ends in
+ * zero bytes, which readers should treat as end of file.
+ *
+ * Overflow policy: when the buffer is full the new event is dropped and
+ * counted, so auditing never slows a request down. The writer then records a
+ * {@code dropped} event with the number lost, so gaps in the trail are visible.
+ *
+ * Auditing is off when {@code audit.directory} is unset.
+ */
+@Component
+public class AuditLog implements AutoCloseable {
+
+    /**
+     * What happened; written as the event's {@code type}
+     */
+    public enum Type {
+        LOGIN("login"),
+        LOGIN_FAILED("login_failed"),
+        LOGOUT("logout"),
+        LOGOUT_ALL("logout_all"),
+        SESSION_REJECTED("session_rejected"),
+        /** A Vortex operation was authorized or denied */
+        VORTEX("vortex"),
+        /** A Vortex API call completed; the detail is its outcome */
+        VORTEX_CALL("vortex_call");
+
+        private final String jsonName;
+
+        Type(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".ndjson";
+
+    // Ring buffer slots, written by request threads and read by the writer
+    private final int mask;
+    private final long[] timestamps;
+    private final Type[] types;
+    private final String[] userIds;
+    private final String[] subjects;
+    private final String[] groupTypes;
+    private final String[] groupIds;
+    private final String[] details;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong unreportedDrops = new AtomicLong();
+
+    private final Path directory;
+    private final int batchSize;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long pollNanos;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Writer thread only
+    private final Encoder encoder = new Encoder();
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+
+    public AuditLog(@Value("${audit.directory:#{null}}") String directory,
+                    @Value("${audit.buffer-size:8192}") int bufferSize,
+                    @Value("${audit.batch-size:256}") int batchSize,
+                    @Value("${audit.segment-size:16MB}") DataSize segmentSize,
+                    @Value("${audit.max-segments:10}") int maxSegments,
+                    @Value("${audit.poll-interval:50ms}") Duration pollInterval) {
+        if (directory == null || directory.isBlank()) {
+            this.directory = null;
+            this.mask = -1;
+            this.timestamps = null;
+            this.types = null;
+            this.userIds = null;
+            this.subjects = null;
+            this.groupTypes = null;
+            this.groupIds = null;
+            this.details = null;
+            this.published = null;
+            this.batchSize = 0;
+            this.segmentSize = 0;
+            this.maxSegments = 0;
+            this.pollNanos = 0;
+            this.writer = null;
+            return;
+        }
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("audit.buffer-size must be a power of two");
+        }
+        if (segmentSize.toBytes() < 4096 || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("audit.segment-size must be between 4KB and 2GB");
+        }
+
+        this.directory = Path.of(directory);
+        this.mask = bufferSize - 1;
+        this.timestamps = new long[bufferSize];
+        this.types = new Type[bufferSize];
+        this.userIds = new String[bufferSize];
+        this.subjects = new String[bufferSize];
+        this.groupTypes = new String[bufferSize];
+        this.groupIds = new String[bufferSize];
+        this.details = new String[bufferSize];
+        this.published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+        this.batchSize = Math.max(batchSize, 1);
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.maxSegments = Math.max(maxSegments, 1);
+        this.pollNanos = pollInterval.toNanos();
+
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create audit directory " + directory, e);
+        }
+
+        this.writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Queue an event for the audit trail; drops it if the buffer is full
+     *
+     * @param userId the user concerned, or null if unknown
+     * @param subject what the event is about (an email, a Vortex operation), or null
+     * @param detail outcome or reason, or null
+     */
+    public void record(Type type, String userId, String subject, String detail) {
+        record(type, userId, subject, null, null, detail);
+    }
+
+    /**
+     * Queue an event about a group, written with a {@code group} of its type and id
+     *
+     * @param groupType the group's type, or null if the event is not about a group
+     */
+    public void record(Type type, String userId, String subject, String groupType, String groupId, String detail) {
+        if (writer == null) {
+            return;
+        }
+
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed > mask) {
+                dropped.incrementAndGet();
+                unreportedDrops.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        int slot = (int) seq & mask;
+        timestamps[slot] = System.currentTimeMillis();
+        types[slot] = type;
+        userIds[slot] = userId;
+        subjects[slot] = subject;
+        groupTypes[slot] = groupType;
+        groupIds[slot] = groupId;
+        details[slot] = detail;
+        published.setRelease(slot, seq);
+
+        // Wake the writer early rather than let the buffer fill up between polls
+        if (seq - consumed == (mask + 1) / 2) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Events written to the audit trail so far
+     */
+    public long writtenCount() {
+        return written.get();
+    }
+
+    /**
+     * Events dropped because the buffer was full
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Events waiting for the writer
+     */
+    public long pendingCount() {
+        return writer == null ? 0 : claimed.get() - consumed;
+    }
+
+    /**
+     * Stop the writer after it has written everything already queued
+     */
+    @Override
+    public void close() {
+        if (writer == null || closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            while (true) {
+                boolean stopping = closed;
+                int drained = drainBatch();
+                if (drained == 0) {
+                    if (stopping) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, pollNanos);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Auditing must never take the application down; stop recording instead
+            closed = true;
+            log.error("Audit writer stopped, further events are dropped", e);
+        } finally {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Write up to one batch of published events, then any unreported drops
+     */
+    private int drainBatch() throws IOException {
+        long next = consumed;
+        int drained = 0;
+        while (drained < batchSize) {
+            int slot = (int) next & mask;
+            if (published.getAcquire(slot) != next) {
+                break;
+            }
+            append(encoder.event(timestamps[slot], types[slot].jsonName, userIds[slot], subjects[slot],
+                    groupTypes[slot], groupIds[slot], details[slot]));
+            userIds[slot] = null;
+            subjects[slot] = null;
+            groupTypes[slot] = null;
+            groupIds[slot] = null;
+            details[slot] = null;
+            next++;
+            drained++;
+        }
+        consumed = next;
+
+        long lost = unreportedDrops.getAndSet(0);
+        if (lost > 0) {
+            append(encoder.dropped(System.currentTimeMillis(), lost));
+        }
+        written.addAndGet(drained);
+        return drained + (lost > 0 ? 1 : 0);
+    }
+
+    private void append(Encoder.Bytes event) throws IOException {
+        if (event.size() > segmentSize) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (segment == null || segment.remaining() < event.size()) {
+            roll();
+        }
+        event.copyTo(segment);
+    }
+
+    /**
+     * Close the current segment and start a new one, deleting the oldest beyond the limit
+     */
+    private void roll() throws IOException {
+        closeSegment();
+
+        long millis = System.currentTimeMillis();
+        Path file;
+        do {
+            file = directory.resolve(SEGMENT_PREFIX + millis++ + SEGMENT_SUFFIX);
+        } while (Files.exists(file));
+
+        segmentChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * Flush the current segment and cut it down to what was written
+     */
+    private void closeSegment() {
+        if (segmentChannel == null) {
+            return;
+        }
+        try {
+            segment.force();
+            segmentChannel.truncate(segment.position());
+            segmentChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit segment", e);
+        }
+        segmentChannel = null;
+        segment = null;
+    }
+
+    /**
+     * NDJSON encoding of events into one reused buffer
+     */
+    private static final class Encoder {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        // Emails come straight from login requests; keep oversized input out of the trail
+        private static final int MAX_FIELD_LENGTH = 256;
+
+        private final Bytes out = new Bytes();
+        private final JsonGenerator json;
+
+        Encoder() {
+            try {
+                json = JSON_FACTORY.createGenerator(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            json.setRootValueSeparator(null);
+        }
+
+        Bytes event(long timestamp, String type, String userId, String subject, String groupType, String groupId,
+                    String detail) throws IOException {
+            out.reset();
+            json.writeStartObject();
+            json.writeStringField("ts", Instant.ofEpochMilli(timestamp).toString());
+            json.writeStringField("type", type);
+            writeField("user", userId);
+            writeField("subject", subject);
+            if (groupType != null) {
+                json.writeObjectFieldStart("group");
+                writeField("type", groupType);
+                writeField("id", groupId);
+                json.writeEndObject();
+            }
+            writeField("detail", detail);
+            json.writeEndObject();
+            json.writeRaw('\n');
+            json.flush();
+            return out;
+        }
+
+        private void writeField(String name, String value) throws IOException {
+            if (value != null) {
+                json.writeStringField(name, value.length() > MAX_FIELD_LENGTH ? value.substring(0, MAX_FIELD_LENGTH) : value);
+            }
+        }
+
+        Bytes dropped(long timestamp, long count) throws IOException {
+            out.reset();
+            json.writeStartObject();
+            json.writeStringField("ts", Instant.ofEpochMilli(timestamp).toString());
+            json.writeStringField("type", "dropped");
+            json.writeNumberField("count", count);
+            json.writeEndObject();
+            json.writeRaw('\n');
+            json.flush();
+            return out;
+        }
+
+        static final class Bytes extends ByteArrayOutputStream {
+
+            Bytes() {
+                super(512);
+            }
+
+            void copyTo(MappedByteBuffer target) {
+                target.put(buf, 0, count);
+            }
+        }
+    }
+}
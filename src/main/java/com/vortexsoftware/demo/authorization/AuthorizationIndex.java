@@ -0,0 +1,180 @@
+package com.vortexsoftware.demo.authorization;
+
+import com.vortexsoftware.demo.directory.UserDirectory;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group memberships and roles of every user, precomputed for authorization
+ *
+ * Built from the user directory when the user set loads (and rebuilt if its
+ * version changes), walking it one user at a time. Groups (by type and id)
+ * are interned to small ints, most populous groups first, and each user's
+ * memberships are a bitset over those ints, stored by the user's position in
+ * the directory, so a membership check is the directory's id lookup, one
+ * hash lookup and one bit test instead of a scan of the user's group list.
+ * An inverted index lists the members of each group by position, in
+ * directory order.
+ */
+@Component
+public class AuthorizationIndex {
+
+    private static final long[] NO_GROUPS = new long[0];
+
+    private final UserDirectory userDirectory;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public AuthorizationIndex(UserDirectory userDirectory) {
+        this.userDirectory = userDirectory;
+        this.snapshot = build(userDirectory);
+    }
+
+    /**
+     * Whether a user is a member of a group
+     */
+    public boolean isMember(String userId, String groupType, String groupId) {
+        Snapshot current = current();
+        Integer group = current.groupIds().get(new GroupKey(groupType, groupId));
+        int user = userDirectory.indexOf(userId);
+        if (group == null || user < 0) {
+            return false;
+        }
+        long[] groups = current.groupsByUser()[user];
+        int word = group >>> 6;
+        return word < groups.length && (groups[word] & (1L << group)) != 0;
+    }
+
+    /**
+     * Whether a user has the admin role
+     */
+    public boolean isAdmin(String userId) {
+        Snapshot current = current();
+        int user = userDirectory.indexOf(userId);
+        return user >= 0 && current.admins().get(user);
+    }
+
+    /**
+     * One page of a group's member ids, in directory order
+     */
+    public Page members(String groupType, String groupId, int offset, int limit) {
+        Snapshot current = current();
+        Integer group = current.groupIds().get(new GroupKey(groupType, groupId));
+        if (group == null) {
+            return new Page(List.of(), 0);
+        }
+
+        int[] members = current.members()[group];
+        int from = Math.min(Math.max(offset, 0), members.length);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), members.length);
+
+        List<String> userIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            userIds.add(userDirectory.get(members[i]).getId());
+        }
+        return new Page(userIds, members.length);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current.version() != userDirectory.version()) {
+            synchronized (this) {
+                current = snapshot;
+                if (current.version() != userDirectory.version()) {
+                    current = build(userDirectory);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Snapshot build(UserDirectory directory) {
+        long version = directory.version();
+        int userCount = directory.size();
+
+        // Intern groups by descending member count, so common groups get the
+        // low ids and most users' bitsets stay a word or two long
+        Map<GroupKey, Integer> memberCounts = new HashMap<>();
+        for (int user = 0; user < userCount; user++) {
+            for (UserGroup group : groups(directory.get(user))) {
+                memberCounts.merge(new GroupKey(group.getType(), group.getId()), 1, Integer::sum);
+            }
+        }
+        List<GroupKey> groupKeys = new ArrayList<>(memberCounts.keySet());
+        groupKeys.sort(Comparator.comparing((GroupKey key) -> memberCounts.get(key)).reversed()
+                .thenComparing(GroupKey::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(GroupKey::id, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Map<GroupKey, Integer> groupIds = new HashMap<>(groupKeys.size() * 2);
+        for (int i = 0; i < groupKeys.size(); i++) {
+            groupIds.put(groupKeys.get(i), i);
+        }
+
+        long[][] groupsByUser = new long[userCount][];
+        BitSet admins = new BitSet(userCount);
+        int[][] members = new int[groupKeys.size()][];
+        int[] filled = new int[groupKeys.size()];
+        for (int i = 0; i < groupKeys.size(); i++) {
+            members[i] = new int[memberCounts.get(groupKeys.get(i))];
+        }
+
+        for (int user = 0; user < userCount; user++) {
+            DemoUser demoUser = directory.get(user);
+            long[] bits = NO_GROUPS;
+            for (UserGroup group : groups(demoUser)) {
+                int id = groupIds.get(new GroupKey(group.getType(), group.getId()));
+                if (id >>> 6 >= bits.length) {
+                    bits = Arrays.copyOf(bits, (id >>> 6) + 1);
+                }
+                if ((bits[id >>> 6] & (1L << id)) == 0) {
+                    bits[id >>> 6] |= 1L << id;
+                    members[id][filled[id]++] = user;
+                }
+            }
+            groupsByUser[user] = bits;
+            admins.set(user, "admin".equals(demoUser.getRole()));
+        }
+
+        // A user listing the same group twice was counted twice above
+        for (int i = 0; i < members.length; i++) {
+            if (filled[i] < members[i].length) {
+                members[i] = Arrays.copyOf(members[i], filled[i]);
+            }
+        }
+
+        return new Snapshot(version, groupIds, groupsByUser, admins, members);
+    }
+
+    private static List<UserGroup> groups(DemoUser user) {
+        return user.getGroups() != null ? user.getGroups() : List.of();
+    }
+
+
+    /**
+     * Member ids on one page and the group's total member count
+     */
+    public record Page(List<String> userIds, int total) {}
+
+    /**
+     * A group by type and id, compared as a pair so that ids containing separators cannot collide
+     */
+    private record GroupKey(String type, String id) {}
+
+    /**
+     * @param groupsByUser each user's membership bitset, by position in the directory
+     * @param members each group's members, by position in the directory
+     */
+    private record Snapshot(long version, Map<GroupKey, Integer> groupIds, long[][] groupsByUser,
+                            BitSet admins, int[][] members) {}
+}
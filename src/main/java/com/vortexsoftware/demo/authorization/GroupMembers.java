@@ -0,0 +1,70 @@
+package com.vortexsoftware.demo.authorization;
+
+import com.vortexsoftware.demo.directory.UserDirectory;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.PublicUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Paginated members-of-group query for {@code /api/demo/groups/{type}/{id}/members}
+ *
+ * Shared by DemoController and the reactive handlers. Members of a group are
+ * visible to the group's own members and to admins.
+ */
+@Component
+public class GroupMembers {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 100;
+
+    private final AuthorizationIndex index;
+    private final UserDirectory userDirectory;
+
+    @Autowired
+    public GroupMembers(AuthorizationIndex index, UserDirectory userDirectory) {
+        this.index = index;
+        this.userDirectory = userDirectory;
+    }
+
+    /**
+     * Whether a user may list a group's members
+     */
+    public boolean canView(DemoUser viewer, String groupType, String groupId) {
+        return index.isMember(viewer.getId(), groupType, groupId) || index.isAdmin(viewer.getId());
+    }
+
+    /**
+     * One page of a group's members, as public views
+     *
+     * {@code nextOffset} is null on the last page. The limit is clamped to
+     * 1..{@value #MAX_LIMIT}.
+     */
+    public Map<String, Object> page(String groupType, String groupId, int offset, int limit) {
+        int start = Math.max(offset, 0);
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        AuthorizationIndex.Page page = index.members(groupType, groupId, start, size);
+
+        List<PublicUser> members = page.userIds().stream()
+                .map(userDirectory::findById)
+                .flatMap(Optional::stream)
+                .map(DemoUser::toPublicUser)
+                .toList();
+
+        int next = start + page.userIds().size();
+
+        // Not Map.of: nextOffset may be null
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("members", members);
+        body.put("total", page.total());
+        body.put("offset", start);
+        body.put("limit", size);
+        body.put("nextOffset", next < page.total() ? next : null);
+        return body;
+    }
+}
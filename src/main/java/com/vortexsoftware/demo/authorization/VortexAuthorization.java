@@ -0,0 +1,68 @@
+package com.vortexsoftware.demo.authorization;
+
+import com.vortexsoftware.demo.audit.AuditLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authorization policy for Vortex operations
+ *
+ * <ul>
+ *   <li>Operations on a group's invitations require membership of that group,
+ *       and are denied if the group cannot be determined.</li>
+ *   <li>Deleting a group's invitations additionally requires the admin role.</li>
+ *   <li>Everything else is allowed for any authenticated user.</li>
+ * </ul>
+ *
+ * Every check is answered from the {@link AuthorizationIndex} and recorded
+ * in the {@link AuditLog}.
+ */
+@Component
+public class VortexAuthorization {
+
+    private final AuthorizationIndex index;
+    private final AuditLog audit;
+
+    @Autowired
+    public VortexAuthorization(AuthorizationIndex index, AuditLog audit) {
+        this.index = index;
+        this.audit = audit;
+    }
+
+    /**
+     * Whether a user may perform an operation
+     *
+     * @param operation the SDK's operation name, e.g. {@code DELETE_GROUP_INVITATIONS}
+     * @param group the group the operation targets, or null if it isn't group-scoped
+     */
+    public boolean authorize(String operation, String userId, GroupRef group) {
+        boolean allowed = decide(operation, userId, group);
+        audit.record(AuditLog.Type.VORTEX, userId, operation,
+                group != null ? group.type() : null, group != null ? group.id() : null,
+                allowed ? "allowed" : "denied");
+        return allowed;
+    }
+
+    private boolean decide(String operation, String userId, GroupRef group) {
+        if (userId == null) {
+            return false;
+        }
+        if (group == null) {
+            // A group operation whose group could not be determined fails closed
+            return !isGroupScoped(operation);
+        }
+        if (!index.isMember(userId, group.type(), group.id())) {
+            return false;
+        }
+        return !operation.startsWith("DELETE") || index.isAdmin(userId);
+    }
+
+    private static boolean isGroupScoped(String operation) {
+        return operation.equals("GET_GROUP_INVITATIONS") || operation.equals("DELETE_GROUP_INVITATIONS");
+    }
+
+    /**
+     * A group by type and id, as in {@code /invitations/by-group/{type}/{id}}
+     */
+    public record GroupRef(String type, String id) {}
+}
@@ -0,0 +1,47 @@
+package com.vortexsoftware.demo.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registers size, hit/miss and eviction meters for a Caffeine-backed cache
+ *
+ * Uses the same meter names as Micrometer's own cache instrumentation
+ * ({@code cache.size}, {@code cache.gets}, {@code cache.evictions}), tagged
+ * with the cache name.
+ */
+final class CacheMeters {
+
+    private CacheMeters() {
+    }
+
+    static <T> void bind(MeterRegistry registry, String name, T cache,
+                         ToDoubleFunction<T> size, Function<T, CacheStats> stats) {
+        Gauge.builder("cache.size", cache, size)
+                .description("Number of entries in the cache")
+                .tag("cache", name)
+                .register(registry);
+
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).hitCount())
+                .description("Cache lookups")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).missCount())
+                .description("Cache lookups")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+
+        FunctionCounter.builder("cache.evictions", cache, c -> stats.apply(c).evictionCount())
+                .description("Entries evicted from the cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.vortexsoftware.demo.config;
+
+import com.vortexsoftware.demo.audit.AuditLog;
+import com.vortexsoftware.demo.overload.AdaptiveConcurrencyLimit;
+import com.vortexsoftware.demo.overload.Priority;
+import com.vortexsoftware.demo.revocation.SessionRevocations;
+import com.vortexsoftware.demo.service.SessionCache;
+import com.vortexsoftware.demo.service.SharedSessionTable;
+import com.vortexsoftware.demo.throttle.LoginThrottle;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters for the application's own caches, session revocations, audit trail, login rate
+ * limit and concurrency limit
+ *
+ * Request, login, session and Vortex API timings are recorded where they
+ * happen (AuthMetrics, MeteredVortexClient); everything is scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder sessionCacheMetrics(SessionCache sessionCache) {
+        return registry -> CacheMeters.bind(registry, "session", sessionCache, SessionCache::size, SessionCache::stats);
+    }
+
+    @Bean
+    public MeterBinder sessionRevocationMetrics(SessionRevocations revocations) {
+        return registry -> {
+            Gauge.builder("session.revocations", revocations, SessionRevocations::revokedTokenCount)
+                    .description("Session revocations not yet expired")
+                    .tag("kind", "token")
+                    .register(registry);
+            Gauge.builder("session.revocations", revocations, SessionRevocations::userCutoffCount)
+                    .description("Session revocations not yet expired")
+                    .tag("kind", "user")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder sharedSessionMetrics(SharedSessionTable sharedSessions) {
+        return registry -> FunctionCounter.builder("session.shared.markers.dropped", sharedSessions,
+                        SharedSessionTable::droppedMarkerCount)
+                .description("Revocation markers the shared session table could not store")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder auditMetrics(AuditLog auditLog) {
+        return registry -> {
+            FunctionCounter.builder("audit.events", auditLog, AuditLog::writtenCount)
+                    .description("Audit events")
+                    .tag("outcome", "written")
+                    .register(registry);
+            FunctionCounter.builder("audit.events", auditLog, AuditLog::droppedCount)
+                    .description("Audit events")
+                    .tag("outcome", "dropped")
+                    .register(registry);
+            Gauge.builder("audit.pending", auditLog, AuditLog::pendingCount)
+                    .description("Audit events waiting for the writer")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyLimit concurrencyLimit) {
+        return registry -> {
+            Gauge.builder("overload.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                    .description("Adaptive limit on requests in flight")
+                    .register(registry);
+            Gauge.builder("overload.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                    .description("Requests in flight")
+                    .register(registry);
+            for (Priority priority : Priority.values()) {
+                FunctionCounter.builder("overload.rejected", concurrencyLimit, limit -> limit.rejectedCount(priority))
+                        .description("Requests shed by the concurrency limit")
+                        .tag("priority", priority.tagValue())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder loginThrottleMetrics(LoginThrottle loginThrottle) {
+        return registry -> Gauge.builder("auth.throttle.keys", loginThrottle, LoginThrottle::trackedKeys)
+                .description("Client IPs and emails tracked by the login rate limit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vortexsoftware.demo.config;
+
+import com.vortexsoftware.demo.controller.AuthController;
+import com.vortexsoftware.demo.diagnostics.SlowRequests;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.PublicUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import com.vortexsoftware.demo.reactive.ReactiveVortexHandler;
+import com.vortexsoftware.demo.vortex.InvitationBatch;
+import com.vortexsoftware.sdk.spring.VortexController;
+import com.vortexsoftware.sdk.types.InvitationGroup;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+import com.vortexsoftware.sdk.types.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Reflection and resource hints for the native image and Spring AOT builds
+ *
+ * Covers what the AOT engine cannot infer from the bean definitions:
+ * jjwt's reflectively loaded implementation classes and Jackson services,
+ * the types serialized by Jackson inside {@code Map} responses and JWT
+ * claims, the SDK's controller and payload types, and the static frontend.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * jjwt-api loads these from jjwt-impl by name
+     */
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                DemoUser.class,
+                PublicUser.class,
+                UserGroup.class,
+                AuthController.LoginRequest.class,
+                ReactiveVortexHandler.AcceptRequest.class,
+                InvitationBatch.Request.class,
+                InvitationBatch.Response.class,
+                SlowRequests.SlowRequest.class,
+                InvitationResult.class,
+                InvitationTarget.class,
+                InvitationGroup.class,
+                User.class);
+
+        // Registered as a @Bean rather than component-scanned; its handler methods are invoked reflectively
+        hints.reflection().registerType(VortexController.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // OutboundExecutor looks up virtual threads reflectively (present on Java 21+)
+        hints.reflection().registerType(Executors.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.resources().registerPattern("static/*");
+    }
+}
@@ -1,31 +1,61 @@
 package com.vortexsoftware.demo.config;
 
+import com.vortexsoftware.demo.overload.AdaptiveConcurrencyLimit;
+import com.vortexsoftware.demo.overload.ConcurrencyLimitFilter;
+import com.vortexsoftware.demo.security.SessionAuthenticationFilter;
+import com.vortexsoftware.demo.service.AuthService;
+import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 
 /**
  * Security configuration for the demo application
  *
  * Disables Spring Security's default login page and allows all requests
  * since we're implementing our own demo authentication system.
+ * The chain starts with the adaptive concurrency limit, so overload is
+ * shed before any other work is done, and then resolves the session cookie
+ * into the SecurityContext once per request. It keeps no HTTP session.
+ * Static assets, the frontend and {@code /health} skip the chain altogether,
+ * concurrency limit included.
+ * The reactive profile has its own equivalent in ReactiveConfiguration.
  */
 @Configuration
 @EnableWebSecurity
+@Profile("!reactive")
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AdaptiveConcurrencyLimit concurrencyLimit,
+                                           AuthService authService) throws Exception {
         http
+            .addFilterBefore(new ConcurrencyLimitFilter(concurrencyLimit), DisableEncodeUrlFilter.class)
+            .addFilterAfter(new SessionAuthenticationFilter(authService), SecurityContextHolderFilter.class)
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
                 .anyRequest().permitAll()
             )
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .requestCache(cache -> cache.disable())
+            .logout(logout -> logout.disable())
             .formLogin(form -> form.disable())
             .httpBasic(basic -> basic.disable());
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public WebSecurityCustomizer ignoredPaths() {
+        return web -> web.ignoring()
+                .requestMatchers(PathRequest.toStaticResources().atCommonLocations())
+                .requestMatchers("/", "/index.html", "/health");
+    }
+}
@@ -0,0 +1,78 @@
+package com.vortexsoftware.demo.config;
+
+import com.vortexsoftware.demo.credential.CredentialEngine;
+import com.vortexsoftware.demo.directory.InMemoryUserDirectory;
+import com.vortexsoftware.demo.directory.MappedFileUserDirectory;
+import com.vortexsoftware.demo.directory.UserDirectory;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * User directory configuration for the demo application
+ *
+ * Uses the built-in demo users unless {@code users.snapshot} points at a
+ * user snapshot file, which is then memory-mapped at startup.
+ */
+@Configuration
+public class UserDirectoryConfiguration {
+
+    /**
+     * Create UserDirectory bean
+     */
+    @Bean
+    public UserDirectory userDirectory(@Value("${users.snapshot:#{null}}") String snapshot,
+                                       CredentialEngine credentialEngine) throws IOException {
+        UserDirectory directory = snapshot != null && !snapshot.isBlank()
+                ? MappedFileUserDirectory.load(Path.of(snapshot))
+                : new InMemoryUserDirectory(demoUsers(credentialEngine));
+        observeCredentials(directory, credentialEngine);
+        return directory;
+    }
+
+    // Size the unknown-email decoy to the costliest stored credential before the first login
+    private static void observeCredentials(UserDirectory directory, CredentialEngine credentialEngine) {
+        for (int i = 0; i < directory.size(); i++) {
+            try {
+                credentialEngine.observe(directory.get(i).getCredential());
+            } catch (IllegalArgumentException e) {
+                // Malformed credential: it cannot be verified, so it sets no cost
+            }
+        }
+    }
+
+    // Demo users with new simplified format (isAutojoinAdmin)
+    // Legacy fields (role, groups) are also included for backward compatibility demo
+    private static List<DemoUser> demoUsers(CredentialEngine credentialEngine) {
+        return Arrays.asList(
+                new DemoUser(
+                        "user-1",
+                        "admin@example.com",
+                        credentialEngine.encode("password123"),
+                        true,  // isAutojoinAdmin
+                        "admin",  // legacy role
+                        Arrays.asList(  // legacy groups
+                                new UserGroup("team", "team-1", "Engineering"),
+                                new UserGroup("organization", "org-1", "Acme Corp")
+                        )
+                ),
+                new DemoUser(
+                        "user-2",
+                        "user@example.com",
+                        credentialEngine.encode("userpass"),
+                        false,  // isAutojoinAdmin
+                        "user",  // legacy role
+                        Arrays.asList(  // legacy groups
+                                new UserGroup("team", "team-1", "Engineering")
+                        )
+                )
+        );
+    }
+}
\ No newline at end of file
@@ -1,21 +1,41 @@
 package com.vortexsoftware.demo.config;
 
+import com.vortexsoftware.demo.audit.AuditLog;
+import com.vortexsoftware.demo.authorization.VortexAuthorization;
+import com.vortexsoftware.demo.authorization.VortexAuthorization.GroupRef;
+import com.vortexsoftware.demo.diagnostics.Stage;
+import com.vortexsoftware.demo.diagnostics.StageEvent;
+import com.vortexsoftware.demo.diagnostics.StageTimer;
 import com.vortexsoftware.demo.model.DemoUser;
 import com.vortexsoftware.demo.model.UserGroup;
-import com.vortexsoftware.demo.service.AuthService;
+import com.vortexsoftware.demo.security.SessionAuthentication;
+import com.vortexsoftware.demo.vortex.BulkheadVortexClient;
+import com.vortexsoftware.demo.vortex.InvitationBatch;
+import com.vortexsoftware.demo.vortex.InvitationCachingVortexClient;
+import com.vortexsoftware.demo.vortex.JwtCachingVortexClient;
+import com.vortexsoftware.demo.vortex.MeteredVortexClient;
+import com.vortexsoftware.demo.vortex.OutboundExecutor;
+import com.vortexsoftware.demo.vortex.PrefetchingVortexClient;
+import com.vortexsoftware.demo.vortex.VortexPrefetch;
 import com.vortexsoftware.sdk.VortexClient;
 import com.vortexsoftware.sdk.spring.VortexConfig;
 import com.vortexsoftware.sdk.spring.VortexController;
 import com.vortexsoftware.sdk.types.InvitationGroup;
 import com.vortexsoftware.sdk.types.InvitationTarget;
-import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,16 +45,126 @@ import java.util.Optional;
 @Configuration
 public class VortexConfiguration {
 
-    @Autowired
-    private AuthService authService;
+    private static final String BY_GROUP = "/invitations/by-group/";
+
+    /**
+     * Create the outbound executor that puts Vortex API calls under a bulkhead and a deadline
+     *
+     * The calling thread still blocks until the call returns or its deadline passes.
+     */
+    @Bean(destroyMethod = "close")
+    public OutboundExecutor vortexOutboundExecutor(@Value("${vortex.outbound.max-concurrent:64}") int maxConcurrent,
+                                                   @Value("${vortex.outbound.deadline:10s}") Duration deadline,
+                                                   @Value("${vortex.outbound.acquire-timeout:50ms}") Duration acquireTimeout) {
+        return new OutboundExecutor(maxConcurrent, deadline, acquireTimeout);
+    }
+
+    /**
+     * Gauges for the outbound executor's bulkhead
+     */
+    @Bean
+    public MeterBinder vortexOutboundMetrics(OutboundExecutor vortexOutboundExecutor) {
+        return registry -> {
+            Gauge.builder("vortex.outbound.in-flight", vortexOutboundExecutor, OutboundExecutor::inFlight)
+                    .description("Vortex API calls currently in flight")
+                    .register(registry);
+            Gauge.builder("vortex.outbound.max-concurrent", vortexOutboundExecutor, OutboundExecutor::maxConcurrent)
+                    .description("Maximum Vortex API calls in flight")
+                    .register(registry);
+        };
+    }
 
     /**
      * Create VortexClient bean
+     *
+     * Vortex API calls always go through the outbound executor (bulkhead and
+     * per-call deadline) unless {@code vortex.outbound.enabled} is false.
+     * When {@code vortex.jwt-cache.enabled} is set, the client is wrapped so
+     * that a user's still-valid Vortex JWT is reused instead of minted again.
+     * When {@code vortex.invitation-cache.enabled} is set, invitation lookups
+     * by target and by group are served from a read-through cache that is
+     * invalidated by the write operations.
+     * Every call that reaches the Vortex API (i.e. not a cache hit) is timed
+     * as {@code vortex.upstream} and its outcome audited.
+     * When {@code vortex.prefetch.enabled} is set, the outermost decorator
+     * serves the current session's prefetched JWT and group lookups.
      */
     @Bean
     public VortexClient vortexClient(@Value("${vortex.api.key:demo-api-key}") String apiKey,
-                                    @Value("${vortex.api.base-url:#{null}}") String baseUrl) {
-        return baseUrl != null ? new VortexClient(apiKey, baseUrl) : new VortexClient(apiKey);
+                                    @Value("${vortex.api.base-url:#{null}}") String baseUrl,
+                                    @Value("${vortex.outbound.enabled:true}") boolean outboundEnabled,
+                                    OutboundExecutor outboundExecutor,
+                                    @Value("${vortex.jwt-cache.enabled:false}") boolean jwtCacheEnabled,
+                                    @Value("${vortex.jwt-cache.refresh-margin:60s}") Duration jwtRefreshMargin,
+                                    @Value("${vortex.jwt-cache.fallback-ttl:5m}") Duration jwtFallbackTtl,
+                                    @Value("${vortex.jwt-cache.maximum-size:10000}") long jwtCacheMaximumSize,
+                                    @Value("${vortex.invitation-cache.enabled:false}") boolean invitationCacheEnabled,
+                                    @Value("${vortex.invitation-cache.ttl:10s}") Duration invitationCacheTtl,
+                                    @Value("${vortex.invitation-cache.stale-while-revalidate:false}") boolean invitationCacheStaleWhileRevalidate,
+                                    @Value("${vortex.invitation-cache.max-stale:30s}") Duration invitationCacheMaxStale,
+                                    @Value("${vortex.invitation-cache.maximum-size:10000}") long invitationCacheMaximumSize,
+                                    VortexPrefetch vortexPrefetch,
+                                    MeterRegistry meterRegistry,
+                                    AuditLog auditLog) {
+        VortexClient client = baseUrl != null ? new VortexClient(apiKey, baseUrl) : new VortexClient(apiKey);
+
+        if (outboundEnabled) {
+            client = new BulkheadVortexClient(apiKey, client, outboundExecutor);
+        }
+
+        client = new MeteredVortexClient(apiKey, client, meterRegistry, auditLog);
+
+        if (jwtCacheEnabled) {
+            JwtCachingVortexClient jwtCache = new JwtCachingVortexClient(apiKey, client, jwtRefreshMargin,
+                    jwtFallbackTtl, jwtCacheMaximumSize);
+            CacheMeters.bind(meterRegistry, "vortex.jwt", jwtCache, JwtCachingVortexClient::size, JwtCachingVortexClient::stats);
+            client = jwtCache;
+        }
+
+        if (invitationCacheEnabled) {
+            InvitationCachingVortexClient invitationCache = new InvitationCachingVortexClient(apiKey, client,
+                    invitationCacheTtl, invitationCacheStaleWhileRevalidate, invitationCacheMaxStale,
+                    invitationCacheMaximumSize);
+            CacheMeters.bind(meterRegistry, "vortex.invitations", invitationCache, InvitationCachingVortexClient::size,
+                    InvitationCachingVortexClient::stats);
+            client = invitationCache;
+        }
+
+        if (vortexPrefetch.isEnabled()) {
+            client = new PrefetchingVortexClient(apiKey, client, vortexPrefetch, this::currentSessionToken);
+        }
+
+        return client;
+    }
+
+    /**
+     * Login-time prefetch of the user's Vortex JWT and group invitations
+     *
+     * Fetches through the full VortexClient (caches, bulkhead, metrics); the
+     * client is looked up lazily because it serves from this buffer in turn.
+     */
+    @Bean(destroyMethod = "close")
+    public VortexPrefetch vortexPrefetch(ObjectProvider<VortexClient> vortexClient,
+                                         @Value("${vortex.prefetch.enabled:false}") boolean enabled,
+                                         @Value("${vortex.prefetch.parallelism:4}") int parallelism,
+                                         @Value("${vortex.prefetch.max-groups:10}") int maxGroups,
+                                         @Value("${vortex.prefetch.maximum-size:10000}") int maximumSize,
+                                         @Value("${vortex.prefetch.ttl:30s}") Duration ttl,
+                                         @Value("${vortex.prefetch.await:2s}") Duration await,
+                                         MeterRegistry meterRegistry) {
+        return new VortexPrefetch(vortexClient::getObject, enabled, parallelism, maxGroups, maximumSize, ttl, await,
+                meterRegistry);
+    }
+
+    /**
+     * Batched invitation lookups and revocations for {@code POST /api/vortex/batch}
+     */
+    @Bean(destroyMethod = "close")
+    public InvitationBatch invitationBatch(VortexClient vortexClient, VortexAuthorization vortexAuthorization,
+                                           @Value("${vortex.batch.parallelism:16}") int parallelism,
+                                           @Value("${vortex.batch.max-items:500}") int maxItems,
+                                           @Value("${vortex.batch.deadline:30s}") Duration deadline) {
+        return new InvitationBatch(vortexClient, vortexAuthorization, parallelism, maxItems, deadline);
     }
 
     /**
@@ -45,18 +175,20 @@ public class VortexConfiguration {
      * 2. Legacy format (deprecated): identifiers + groups + role
      *
      * In production, choose one format based on your needs.
+     *
+     * Operations are authorized by {@link VortexAuthorization}; for the
+     * by-group routes the group is taken from the request path.
      */
     @Bean
-    public VortexConfig vortexConfig() {
+    public VortexConfig vortexConfig(VortexAuthorization vortexAuthorization) {
         return new VortexConfig() {
             @Override
             public VortexUser authenticateUser() {
-                // Get current request
-                ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
-                HttpServletRequest request = attrs.getRequest();
-
-                // Get current user from session
-                Optional<DemoUser> userOpt = authService.getCurrentUser(request);
+                // Get current user, resolved from the session once per request by SessionAuthenticationFilter
+                Optional<DemoUser> userOpt;
+                try (StageTimer timer = StageTimer.start(Stage.VORTEX_AUTHENTICATE, new StageEvent.VortexAuthenticate())) {
+                    userOpt = SessionAuthentication.currentUser();
+                }
                 if (userOpt.isEmpty()) {
                     return null;
                 }
@@ -93,17 +225,48 @@ public class VortexConfiguration {
 
             @Override
             public boolean authorizeOperation(String operation, VortexUser user) {
-                // For demo purposes, allow all operations if user is authenticated
-                // In production, you'd implement proper access control
-                return user != null;
+                return user != null
+                        && vortexAuthorization.authorize(operation, user.getUserId(), currentRequestGroup());
             }
         };
     }
 
+    /**
+     * Session token of the current authenticated request, or null outside one
+     */
+    private String currentSessionToken() {
+        return SessionAuthentication.current().map(SessionAuthentication::getSessionToken).orElse(null);
+    }
+
+    /**
+     * Group targeted by the current request, for {@code .../invitations/by-group/{type}/{id}}
+     */
+    private static GroupRef currentRequestGroup() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) {
+            return null;
+        }
+
+        String path = attrs.getRequest().getRequestURI();
+        int start = path.indexOf(BY_GROUP);
+        if (start < 0) {
+            return null;
+        }
+
+        String[] parts = path.substring(start + BY_GROUP.length()).split("/");
+        if (parts.length != 2) {
+            return null;
+        }
+        return new GroupRef(UriUtils.decode(parts[0], StandardCharsets.UTF_8),
+                UriUtils.decode(parts[1], StandardCharsets.UTF_8));
+    }
+
     /**
      * Create VortexController bean to register the API routes
+     *
+     * The reactive profile serves these routes with ReactiveVortexHandler instead.
      */
     @Bean
+    @Profile("!reactive")
     public VortexController vortexController(VortexClient vortexClient, VortexConfig vortexConfig) {
         return new VortexController(vortexClient, vortexConfig);
     }
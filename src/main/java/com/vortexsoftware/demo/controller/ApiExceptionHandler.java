@@ -0,0 +1,30 @@
+package com.vortexsoftware.demo.controller;
+
+import com.vortexsoftware.demo.vortex.OutboundRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Maps infrastructure exceptions to JSON error responses
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Vortex call rejected by the bulkhead (503) or cancelled at its deadline (504)
+     */
+    @ExceptionHandler(OutboundRejectedException.class)
+    public ResponseEntity<?> outboundRejected(OutboundRejectedException e) {
+        if (e.isTimeout()) {
+            return ResponseEntity.status(504)
+                    .body(Map.of("error", "Vortex API timed out"));
+        }
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Vortex API busy, try again"));
+    }
+}
@@ -1,13 +1,19 @@
 package com.vortexsoftware.demo.controller;
 
 import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.security.CurrentUser;
 import com.vortexsoftware.demo.service.AuthService;
+import com.vortexsoftware.demo.throttle.LoginThrottle;
+import com.vortexsoftware.demo.vortex.VortexPrefetch;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,26 +21,44 @@ import java.util.Optional;
  * Authentication controller for demo users
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final VortexPrefetch vortexPrefetch;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, VortexPrefetch vortexPrefetch, LoginThrottle loginThrottle) {
         this.authService = authService;
+        this.vortexPrefetch = vortexPrefetch;
+        this.loginThrottle = loginThrottle;
     }
 
     /**
      * Login with email and password
+     *
+     * Rate limited per client and per email; throttled attempts get a 429
+     * with {@code Retry-After} before the password is checked. The client is
+     * the remote address, which behind a trusted proxy is taken from
+     * X-Forwarded-For (see {@code server.trusted-proxies}).
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletResponse response) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest,
+                                   HttpServletResponse response) {
         if (request.getEmail() == null || request.getPassword() == null) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Email and password required"));
         }
 
+        Optional<Duration> throttled = loginThrottle.tryAcquire(httpRequest.getRemoteAddr(), request.getEmail());
+        if (throttled.isPresent()) {
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(LoginThrottle.retryAfterSeconds(throttled.get())))
+                    .body(Map.of("error", "Too many login attempts"));
+        }
+
         Optional<DemoUser> userOpt = authService.authenticateUser(request.getEmail(), request.getPassword());
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(401)
@@ -47,17 +71,40 @@ public class AuthController {
         String sessionToken = authService.createSessionJWT(user);
         authService.setSessionCookie(response, sessionToken);
 
+        // Warm up the Vortex calls the front end makes next (returns immediately)
+        vortexPrefetch.start(sessionToken, user);
+
         return ResponseEntity.ok(Map.of(
                 "success", true,
-                "user", user.withoutPassword()
+                "user", user.toPublicUser()
         ));
     }
 
     /**
-     * Logout (clear session)
+     * Logout (revoke and clear session)
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        authService.getSessionToken(request).ifPresent(token -> {
+            vortexPrefetch.cancel(token);
+            authService.revokeSession(token);
+        });
+        authService.clearSessionCookie(response);
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+
+    /**
+     * Logout everywhere (revoke all of the current user's sessions)
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@CurrentUser Optional<DemoUser> userOpt, HttpServletResponse response) {
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Not authenticated"));
+        }
+
+        vortexPrefetch.cancelUser(userOpt.get().getId());
+        authService.revokeAllSessions(userOpt.get().getId());
         authService.clearSessionCookie(response);
         return ResponseEntity.ok(Map.of("success", true));
     }
@@ -66,14 +113,13 @@ public class AuthController {
      * Get current user info
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(HttpServletRequest request) {
-        Optional<DemoUser> userOpt = authService.getCurrentUser(request);
+    public ResponseEntity<?> getCurrentUser(@CurrentUser Optional<DemoUser> userOpt) {
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "Not authenticated"));
         }
 
-        return ResponseEntity.ok(Map.of("user", userOpt.get().withoutPassword()));
+        return ResponseEntity.ok(Map.of("user", userOpt.get().toPublicUser()));
     }
 
     /**
@@ -1,14 +1,17 @@
 package com.vortexsoftware.demo.controller;
 
+import com.vortexsoftware.demo.authorization.GroupMembers;
 import com.vortexsoftware.demo.model.DemoUser;
-import com.vortexsoftware.demo.service.AuthService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.vortexsoftware.demo.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -16,31 +19,85 @@ import java.util.Optional;
  * Demo controller for testing routes
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/demo")
 public class DemoController {
 
-    private final AuthService authService;
+    private final DemoUsersResponse demoUsersResponse;
+    private final UserListing userListing;
+    private final GroupMembers groupMembers;
 
     @Autowired
-    public DemoController(AuthService authService) {
-        this.authService = authService;
+    public DemoController(DemoUsersResponse demoUsersResponse, UserListing userListing, GroupMembers groupMembers) {
+        this.demoUsersResponse = demoUsersResponse;
+        this.userListing = userListing;
+        this.groupMembers = groupMembers;
     }
 
     /**
-     * Get all demo users
+     * Get demo users
+     *
+     * Without parameters, all users are served from a pre-serialized body
+     * that is rebuilt only when the user directory changes, unless the
+     * directory is too large for that: then the first page is returned. With
+     * {@code cursor}, {@code limit} or {@code fields}, one page of projected
+     * users is returned with a {@code nextCursor}.
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getDemoUsers() {
-        List<DemoUser> users = authService.getDemoUsers();
-        return ResponseEntity.ok(Map.of("users", users));
+    public ResponseEntity<?> getDemoUsers(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String fields) {
+        if (cursor == null && limit == null && fields == null) {
+            Optional<PreSerializedJson> allUsers = demoUsersResponse.get();
+            if (allUsers.isPresent()) {
+                return allUsers.get().respond(ifNoneMatch);
+            }
+        }
+
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(userListing.page(userListing.query(cursor, limit, fields, false)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream demo users as newline-delimited JSON ({@code Accept: application/x-ndjson})
+     *
+     * Users are written to the response one at a time, so memory use does
+     * not grow with the directory. Takes the same {@code cursor} and
+     * {@code fields} parameters; without {@code limit}, all remaining users
+     * are streamed.
+     */
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDemoUsers(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) String fields) {
+        UserListing.Query query;
+        try {
+            query = userListing.query(cursor, limit, fields, true);
+        } catch (IllegalArgumentException e) {
+            // Written directly: no message converter renders a Map for an NDJSON request
+            byte[] error = userListing.error(e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(error));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userListing.writeNdjson(query, out));
     }
 
     /**
      * Protected route that requires authentication
      */
     @GetMapping("/protected")
-    public ResponseEntity<?> getProtectedResource(HttpServletRequest request) {
-        Optional<DemoUser> userOpt = authService.getCurrentUser(request);
+    public ResponseEntity<?> getProtectedResource(@CurrentUser Optional<DemoUser> userOpt) {
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "Not authenticated"));
@@ -49,8 +106,32 @@ public class DemoController {
         DemoUser user = userOpt.get();
         return ResponseEntity.ok(Map.of(
                 "message", "This is a protected route!",
-                "user", user.withoutPassword(),
+                "user", user.toPublicUser(),
                 "timestamp", Instant.now().toString()
         ));
     }
-}
\ No newline at end of file
+
+    /**
+     * Members of a group, one page at a time
+     *
+     * Visible to members of the group and to admins.
+     */
+    @GetMapping("/groups/{groupType}/{groupId}/members")
+    public ResponseEntity<?> getGroupMembers(@PathVariable String groupType,
+                                             @PathVariable String groupId,
+                                             @RequestParam(defaultValue = "0") int offset,
+                                             @RequestParam(defaultValue = "" + GroupMembers.DEFAULT_LIMIT) int limit,
+                                             @CurrentUser Optional<DemoUser> userOpt) {
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Not authenticated"));
+        }
+
+        if (!groupMembers.canView(userOpt.get(), groupType, groupId)) {
+            return ResponseEntity.status(403)
+                    .body(Map.of("error", "Forbidden"));
+        }
+
+        return ResponseEntity.ok(groupMembers.page(groupType, groupId, offset, limit));
+    }
+}
@@ -0,0 +1,64 @@
+package com.vortexsoftware.demo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexsoftware.demo.model.PublicUser;
+import com.vortexsoftware.demo.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pre-serialized {@code /api/demo/users} response
+ *
+ * Rebuilt only when the user directory version changes. Only kept for
+ * directories of up to {@code users.pre-serialized-limit} users; a larger
+ * directory (e.g. a mapped snapshot) is never serialized whole onto the heap,
+ * and callers fall back to the paged listing.
+ */
+@Component
+public class DemoUsersResponse {
+
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final int limit;
+
+    // Serialized user list and the directory version it was built from
+    private volatile VersionedResponse response;
+
+    @Autowired
+    public DemoUsersResponse(AuthService authService, ObjectMapper objectMapper,
+                             @Value("${users.pre-serialized-limit:1000}") int limit) {
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+        this.limit = limit;
+    }
+
+    /**
+     * Current serialized user list, or empty if the directory is too large to serialize whole
+     */
+    public Optional<PreSerializedJson> get() {
+        if (authService.getDirectorySize() > limit) {
+            return Optional.empty();
+        }
+
+        long version = authService.getDirectoryVersion();
+        VersionedResponse current = response;
+        if (current == null || current.version() != version) {
+            synchronized (this) {
+                current = response;
+                if (current == null || current.version() != version) {
+                    List<PublicUser> users = authService.getDemoUsers();
+                    current = new VersionedResponse(version, PreSerializedJson.of(objectMapper, Map.of("users", users)));
+                    response = current;
+                }
+            }
+        }
+        return Optional.of(current.json());
+    }
+
+    private record VersionedResponse(long version, PreSerializedJson json) {}
+}
@@ -0,0 +1,54 @@
+package com.vortexsoftware.demo.controller;
+
+import com.vortexsoftware.demo.authorization.AuthorizationIndex;
+import com.vortexsoftware.demo.diagnostics.SlowRequests;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Diagnostics for admins
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin")
+public class DiagnosticsController {
+
+    private final AuthorizationIndex authorizationIndex;
+    private final SlowRequests slowRequests;
+
+    @Autowired
+    public DiagnosticsController(AuthorizationIndex authorizationIndex, SlowRequests slowRequests) {
+        this.authorizationIndex = authorizationIndex;
+        this.slowRequests = slowRequests;
+    }
+
+    /**
+     * Slowest recent requests, slowest first, with time per stage
+     */
+    @GetMapping("/slow-requests")
+    public ResponseEntity<?> getSlowRequests(@CurrentUser Optional<DemoUser> userOpt) {
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Not authenticated"));
+        }
+
+        if (!authorizationIndex.isAdmin(userOpt.get().getId())) {
+            return ResponseEntity.status(403)
+                    .body(Map.of("error", "Forbidden"));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "windowSeconds", slowRequests.window().toSeconds(),
+                "requests", slowRequests.snapshot()
+        ));
+    }
+}
@@ -0,0 +1,84 @@
+package com.vortexsoftware.demo.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * JSON response body serialized once, with a strong ETag
+ *
+ * Serving it is a byte copy; a matching {@code If-None-Match} gets a 304
+ * without touching the body at all.
+ */
+public final class PreSerializedJson {
+
+    private final byte[] body;
+    private final String etag;
+
+    private PreSerializedJson(byte[] body, String etag) {
+        this.body = body;
+        this.etag = etag;
+    }
+
+    /**
+     * Serialize a response body and compute its ETag
+     */
+    public static PreSerializedJson of(ObjectMapper objectMapper, Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return new PreSerializedJson(body, "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to pre-serialize response", e);
+        }
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    /**
+     * 304 if the client already has this representation, otherwise the serialized body
+     */
+    public ResponseEntity<?> respond(String ifNoneMatch) {
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    /**
+     * Whether an If-None-Match header value matches this representation
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
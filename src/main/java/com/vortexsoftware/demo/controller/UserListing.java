@@ -0,0 +1,238 @@
+package com.vortexsoftware.demo.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vortexsoftware.demo.directory.UserDirectory;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Paginated, projected and streamed {@code /api/demo/users} listings
+ *
+ * Users are read from the directory one at a time by position and written
+ * straight to JSON with only the requested fields, so neither the full user
+ * list nor password-less copies of it are ever built.
+ *
+ * Cursors are opaque to clients: they encode the directory version and the
+ * position to resume from, and are rejected once the directory changes.
+ */
+@Component
+public class UserListing {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+    private static final int CURSOR_LENGTH = 8 + 4;
+
+    private final UserDirectory userDirectory;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserListing(UserDirectory userDirectory, ObjectMapper objectMapper) {
+        this.userDirectory = userDirectory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * User fields that can be selected with {@code fields=...}
+     */
+    public enum Field {
+        ID("id"), EMAIL("email"), ROLE("role"), GROUPS("groups"), AUTOJOIN_ADMIN("autojoinAdmin");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    /**
+     * Resolved listing request: a range of directory positions and the fields to write
+     */
+    public record Query(long version, int start, int end, Set<Field> fields) {}
+
+    /**
+     * Resolve request parameters
+     *
+     * A page defaults to {@value #DEFAULT_LIMIT} users; a stream without a
+     * limit runs to the end of the directory.
+     *
+     * @throws IllegalArgumentException for a malformed or stale cursor, a bad limit or an unknown field
+     */
+    public Query query(String cursor, Integer limit, String fields, boolean stream) {
+        long version = userDirectory.version();
+        int size = userDirectory.size();
+
+        int start = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(cursor, version);
+        if (start > size) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        int end;
+        if (limit == null) {
+            end = stream ? size : (int) Math.min((long) start + DEFAULT_LIMIT, size);
+        } else if (limit < 1 || (!stream && limit > MAX_LIMIT)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        } else {
+            end = (int) Math.min((long) start + limit, size);
+        }
+
+        return new Query(version, start, end, parseFields(fields));
+    }
+
+    /**
+     * One page as {@code {"users": [...], "nextCursor": ...}}, with a null cursor on the last page
+     */
+    public byte[] page(Query query) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("users");
+            for (int i = query.start(); i < query.end(); i++) {
+                writeUser(json, userDirectory.get(i), query.fields());
+            }
+            json.writeEndArray();
+            if (query.end() < userDirectory.size()) {
+                json.writeStringField("nextCursor", encodeCursor(query.version(), query.end()));
+            } else {
+                json.writeNullField("nextCursor");
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write the users as newline-delimited JSON, one user per line
+     */
+    public void writeNdjson(Query query, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null); // lines are separated by '\n' only
+            for (int i = query.start(); i < query.end(); i++) {
+                writeUser(json, userDirectory.get(i), query.fields());
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * A single NDJSON line, for the reactive stack's streamed responses
+     */
+    public byte[] ndjsonLine(Query query, int index) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            writeUser(json, userDirectory.get(index), query.fields());
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * {@code {"error": message}}, for responses that bypass the message converters
+     */
+    public byte[] error(String message) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("error", message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize error", e);
+        }
+    }
+
+    private static void writeUser(JsonGenerator json, DemoUser user, Set<Field> fields) throws IOException {
+        json.writeStartObject();
+        for (Field field : fields) {
+            json.writeFieldName(field.jsonName);
+            switch (field) {
+                case ID -> json.writeString(user.getId());
+                case EMAIL -> json.writeString(user.getEmail());
+                case ROLE -> json.writeString(user.getRole());
+                case AUTOJOIN_ADMIN -> json.writeBoolean(user.isAutojoinAdmin());
+                case GROUPS -> {
+                    json.writeStartArray();
+                    if (user.getGroups() != null) {
+                        for (UserGroup group : user.getGroups()) {
+                            json.writeStartObject();
+                            json.writeStringField("type", group.getType());
+                            json.writeStringField("id", group.getId());
+                            json.writeStringField("name", group.getName());
+                            json.writeEndObject();
+                        }
+                    }
+                    json.writeEndArray();
+                }
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private static Set<Field> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(Field.class);
+        }
+
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            Field match = null;
+            for (Field field : Field.values()) {
+                if (field.jsonName.equalsIgnoreCase(trimmed)) {
+                    match = field;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            selected.add(match);
+        }
+        return selected;
+    }
+
+    private static String encodeCursor(long version, int position) {
+        return CURSOR_ENCODER.encodeToString(ByteBuffer.allocate(CURSOR_LENGTH)
+                .putLong(version)
+                .putInt(position)
+                .array());
+    }
+
+    private static int decodeCursor(String cursor, long version) {
+        byte[] bytes;
+        try {
+            bytes = CURSOR_DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != CURSOR_LENGTH) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getLong() != version) {
+            throw new IllegalArgumentException("Cursor expired, the user directory has changed");
+        }
+        int position = buffer.getInt();
+        if (position < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return position;
+    }
+}
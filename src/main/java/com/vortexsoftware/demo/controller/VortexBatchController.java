@@ -0,0 +1,52 @@
+package com.vortexsoftware.demo.controller;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.security.CurrentUser;
+import com.vortexsoftware.demo.vortex.InvitationBatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Batch endpoint next to the SDK's {@code /api/vortex} routes
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/vortex")
+public class VortexBatchController {
+
+    private final InvitationBatch invitationBatch;
+
+    @Autowired
+    public VortexBatchController(InvitationBatch invitationBatch) {
+        this.invitationBatch = invitationBatch;
+    }
+
+    /**
+     * Look up invitations for many targets and groups, and revoke many invitations, in one request
+     *
+     * Items are authorized and answered individually, so the response is 200
+     * with per-item errors even when some calls fail.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> batch(@RequestBody InvitationBatch.Request body, @CurrentUser Optional<DemoUser> userOpt) {
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Unauthorized"));
+        }
+
+        try {
+            return ResponseEntity.ok(invitationBatch.execute(body, userOpt.get().getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.vortexsoftware.demo.credential;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hashes and verifies passwords using pluggable KDFs
+ *
+ * New passwords are hashed with the configured KDF ({@code credentials.kdf});
+ * stored credentials are verified with whichever KDF produced them. Checks
+ * for unknown emails run against a decoy as costly as the costliest
+ * credential seen, so stored PBKDF2 hashes under a sha256 default still
+ * can't be told apart from missing users by timing.
+ */
+@Component
+public class CredentialEngine {
+
+    private final Map<String, PasswordHasher> hashers;
+    private final PasswordHasher defaultHasher;
+    private final AtomicReference<PasswordCredential> decoy;
+
+    public CredentialEngine(@Value("${credentials.kdf:sha256}") String kdf,
+                            @Value("${credentials.pbkdf2.iterations:210000}") int pbkdf2Iterations) {
+        PasswordHasher sha256 = new Sha256PasswordHasher();
+        PasswordHasher pbkdf2 = new Pbkdf2PasswordHasher(pbkdf2Iterations);
+        this.hashers = Map.of(sha256.algorithm(), sha256, pbkdf2.algorithm(), pbkdf2);
+
+        this.defaultHasher = hashers.get(kdf);
+        if (defaultHasher == null) {
+            throw new IllegalArgumentException("Unknown credentials.kdf: " + kdf + " (expected one of " + hashers.keySet() + ")");
+        }
+        this.decoy = new AtomicReference<>(defaultHasher.hash("decoy-password"));
+    }
+
+    /**
+     * Hash a password with the configured KDF and encode it for storage
+     */
+    public String encode(String password) {
+        return defaultHasher.hash(password).encode();
+    }
+
+    /**
+     * Check a password against a stored credential in constant time
+     */
+    public boolean matches(String password, PasswordCredential credential) {
+        if (password == null || credential == null) {
+            return false;
+        }
+        PasswordHasher hasher = hashers.get(credential.algorithm());
+        if (hasher == null) {
+            return false;
+        }
+        observe(credential);
+        return hasher.matches(password, credential);
+    }
+
+    /**
+     * Make {@link #matchNothing} at least as costly as checking a password against this credential
+     */
+    public void observe(PasswordCredential credential) {
+        if (credential != null && hashers.containsKey(credential.algorithm()) && costlier(credential, decoy.get())) {
+            decoy.accumulateAndGet(credential, (current, seen) -> costlier(seen, current) ? decoyLike(seen) : current);
+        }
+    }
+
+    /**
+     * Spend the same hashing work as a real check when there is no user to check against,
+     * so response timing doesn't reveal which emails exist
+     */
+    public void matchNothing(String password) {
+        if (password != null) {
+            PasswordCredential current = decoy.get();
+            hashers.get(current.algorithm()).matches(password, current);
+        }
+    }
+
+    // Iterations decide the cost; at equal counts anything beats a single unsalted SHA-256
+    private static boolean costlier(PasswordCredential a, PasswordCredential b) {
+        if (a.iterations() != b.iterations()) {
+            return a.iterations() > b.iterations();
+        }
+        return PasswordCredential.SHA256.equals(b.algorithm()) && !PasswordCredential.SHA256.equals(a.algorithm());
+    }
+
+    // Same algorithm, iterations and lengths, matching no password
+    private static PasswordCredential decoyLike(PasswordCredential credential) {
+        return new PasswordCredential(credential.algorithm(), credential.iterations(),
+                new byte[credential.salt().length], new byte[credential.hash().length]);
+    }
+}
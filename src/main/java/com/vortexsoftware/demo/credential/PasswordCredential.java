@@ -0,0 +1,86 @@
+package com.vortexsoftware.demo.credential;
+
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Stored password hash, decoded once into raw bytes
+ *
+ * Two encodings are understood:
+ * <ul>
+ *   <li>64 hex characters: legacy unsalted SHA-256</li>
+ *   <li>{@code pbkdf2-sha256$<iterations>$<base64 salt>$<base64 hash>}</li>
+ * </ul>
+ */
+public final class PasswordCredential {
+
+    public static final String SHA256 = "sha256";
+    public static final String PBKDF2_SHA256 = "pbkdf2-sha256";
+
+    private final String algorithm;
+    private final int iterations;
+    private final byte[] salt;
+    private final byte[] hash;
+
+    public PasswordCredential(String algorithm, int iterations, byte[] salt, byte[] hash) {
+        this.algorithm = algorithm;
+        this.iterations = iterations;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    /**
+     * Decode a stored credential string
+     */
+    public static PasswordCredential parse(String encoded) {
+        if (encoded == null) {
+            throw new IllegalArgumentException("No credential");
+        }
+
+        if (encoded.startsWith(PBKDF2_SHA256 + "$")) {
+            String[] parts = encoded.split("\\$");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed " + PBKDF2_SHA256 + " credential");
+            }
+            return new PasswordCredential(
+                    PBKDF2_SHA256,
+                    Integer.parseInt(parts[1]),
+                    Base64.getDecoder().decode(parts[2]),
+                    Base64.getDecoder().decode(parts[3])
+            );
+        }
+
+        if (encoded.length() == 64) {
+            return new PasswordCredential(SHA256, 1, new byte[0], HexFormat.of().parseHex(encoded));
+        }
+
+        throw new IllegalArgumentException("Unsupported credential format");
+    }
+
+    /**
+     * Encode for storage (inverse of {@link #parse})
+     */
+    public String encode() {
+        if (SHA256.equals(algorithm)) {
+            return HexFormat.of().formatHex(hash);
+        }
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return algorithm + "$" + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    byte[] salt() {
+        return salt;
+    }
+
+    byte[] hash() {
+        return hash;
+    }
+}
@@ -0,0 +1,22 @@
+package com.vortexsoftware.demo.credential;
+
+/**
+ * Key derivation function used to hash passwords
+ */
+public interface PasswordHasher {
+
+    /**
+     * Algorithm name as stored in {@link PasswordCredential}
+     */
+    String algorithm();
+
+    /**
+     * Hash a password for storage, generating a fresh salt if the algorithm uses one
+     */
+    PasswordCredential hash(String password);
+
+    /**
+     * Check a password against a stored credential in constant time
+     */
+    boolean matches(String password, PasswordCredential credential);
+}
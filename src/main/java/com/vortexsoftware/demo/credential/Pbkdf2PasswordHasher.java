@@ -0,0 +1,69 @@
+package com.vortexsoftware.demo.credential;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hashing with a configurable iteration count
+ *
+ * Stored credentials keep their own iteration count, so raising the cost
+ * only affects newly hashed passwords.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 not available", e);
+        }
+    });
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String algorithm() {
+        return PasswordCredential.PBKDF2_SHA256;
+    }
+
+    @Override
+    public PasswordCredential hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        return new PasswordCredential(PasswordCredential.PBKDF2_SHA256, iterations, salt,
+                derive(password, salt, iterations, HASH_LENGTH));
+    }
+
+    @Override
+    public boolean matches(String password, PasswordCredential credential) {
+        byte[] expected = credential.hash();
+        byte[] actual = derive(password, credential.salt(), credential.iterations(), expected.length);
+        return MessageDigest.isEqual(actual, expected);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+        try {
+            return FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to hash password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
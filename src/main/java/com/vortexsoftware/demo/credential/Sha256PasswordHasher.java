@@ -0,0 +1,51 @@
+package com.vortexsoftware.demo.credential;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Legacy unsalted SHA-256 password hashing (for demo purposes only)
+ *
+ * Each thread reuses its own MessageDigest and output buffer, so verifying a
+ * password allocates nothing beyond the password's UTF-8 bytes.
+ */
+public class Sha256PasswordHasher implements PasswordHasher {
+
+    private static final int HASH_LENGTH = 32;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[HASH_LENGTH]);
+
+    @Override
+    public String algorithm() {
+        return PasswordCredential.SHA256;
+    }
+
+    @Override
+    public PasswordCredential hash(String password) {
+        byte[] hash = DIGEST.get().digest(password.getBytes(StandardCharsets.UTF_8));
+        return new PasswordCredential(PasswordCredential.SHA256, 1, new byte[0], hash);
+    }
+
+    @Override
+    public boolean matches(String password, PasswordCredential credential) {
+        MessageDigest digest = DIGEST.get();
+        byte[] buffer = BUFFER.get();
+        try {
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            digest.digest(buffer, 0, HASH_LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Failed to hash password", e);
+        }
+        return MessageDigest.isEqual(buffer, credential.hash());
+    }
+}
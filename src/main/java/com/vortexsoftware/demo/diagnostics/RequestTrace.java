@@ -0,0 +1,81 @@
+package com.vortexsoftware.demo.diagnostics;
+
+/**
+ * Per-stage time spent by one request, bound to the thread serving it
+ *
+ * Only stages timed on that thread are counted; Vortex calls fanned out to
+ * other threads (batches, prefetch) show up as Flight Recorder events only.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final Stage[] STAGES = Stage.values();
+
+    private final String method;
+    private final String path;
+    private final long startedAtMillis;
+    private final long startNanos;
+    private final long[] stageNanos = new long[STAGES.length];
+    private final int[] stageCounts = new int[STAGES.length];
+    private long durationNanos = -1;
+
+    private RequestTrace(String method, String path) {
+        this.method = method;
+        this.path = path;
+        this.startedAtMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Start tracing a request on the current thread
+     */
+    public static RequestTrace begin(String method, String path) {
+        RequestTrace trace = new RequestTrace(method, path);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * The current thread's trace, or null outside a traced request
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop tracing and unbind the trace from the thread
+     */
+    public void end() {
+        durationNanos = System.nanoTime() - startNanos;
+        CURRENT.remove();
+    }
+
+    void add(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+        stageCounts[stage.ordinal()]++;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public long startedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    public long stageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public int stageCount(Stage stage) {
+        return stageCounts[stage.ordinal()];
+    }
+}
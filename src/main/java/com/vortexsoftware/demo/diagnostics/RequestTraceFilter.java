@@ -0,0 +1,45 @@
+package com.vortexsoftware.demo.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Traces every servlet request and offers it to {@link SlowRequests}
+ *
+ * Runs ahead of Spring Security so the whole request is timed. Streamed
+ * bodies are timed up to the point the handler returns.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final SlowRequests slowRequests;
+
+    @Autowired
+    public RequestTraceFilter(SlowRequests slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin(request.getMethod(), request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            trace.end();
+            slowRequests.offer(trace, response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.vortexsoftware.demo.diagnostics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded reservoir of the slowest recent requests, with their stage breakdown
+ *
+ * Keeps the {@code size} slowest requests that finished within the last
+ * {@code window}. Once it is full, a request has to beat the fastest one kept
+ * (or that one has to have aged out) before the lock is taken, so the usual
+ * cost per request is two field reads and a clock read.
+ */
+@Component
+@Profile("!reactive")
+public class SlowRequests {
+
+    private static final Comparator<SlowRequest> BY_DURATION = Comparator.comparingLong(SlowRequest::durationNanos);
+
+    private final int size;
+    private final long windowMillis;
+    private final long minDurationNanos;
+    private final PriorityQueue<SlowRequest> slowest;
+
+    // Fast-path filter: while full, only requests slower than admitNanos get in, until admitUntilMillis
+    private volatile long admitNanos;
+    private volatile long admitUntilMillis;
+
+    public SlowRequests(@Value("${diagnostics.slow-requests.size:50}") int size,
+                        @Value("${diagnostics.slow-requests.window:5m}") Duration window,
+                        @Value("${diagnostics.slow-requests.min-duration:10ms}") Duration minDuration) {
+        this.size = size;
+        this.windowMillis = window.toMillis();
+        this.minDurationNanos = minDuration.toNanos();
+        this.slowest = new PriorityQueue<>(Math.max(size, 1), BY_DURATION);
+    }
+
+    /**
+     * Consider a finished request for the reservoir
+     */
+    public void offer(RequestTrace trace, int status) {
+        long duration = trace.durationNanos();
+        if (size <= 0 || duration < minDurationNanos) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (duration <= admitNanos && now < admitUntilMillis) {
+            return;
+        }
+
+        SlowRequest request = SlowRequest.of(trace, status);
+        synchronized (this) {
+            evictExpired(now);
+            if (slowest.size() < size) {
+                slowest.add(request);
+            } else if (duration > slowest.peek().durationNanos()) {
+                slowest.poll();
+                slowest.add(request);
+            }
+            updateAdmission();
+        }
+    }
+
+    /**
+     * The requests kept, slowest first
+     */
+    public List<SlowRequest> snapshot() {
+        List<SlowRequest> requests;
+        synchronized (this) {
+            evictExpired(System.currentTimeMillis());
+            updateAdmission();
+            requests = new ArrayList<>(slowest);
+        }
+        requests.sort(BY_DURATION.reversed());
+        return requests;
+    }
+
+    public Duration window() {
+        return Duration.ofMillis(windowMillis);
+    }
+
+    private void evictExpired(long now) {
+        slowest.removeIf(request -> request.finishedAtMillis() + windowMillis <= now);
+    }
+
+    private void updateAdmission() {
+        if (slowest.size() < size) {
+            admitNanos = 0;
+            admitUntilMillis = 0;
+            return;
+        }
+        long oldest = Long.MAX_VALUE;
+        for (SlowRequest request : slowest) {
+            oldest = Math.min(oldest, request.finishedAtMillis());
+        }
+        admitNanos = slowest.peek().durationNanos();
+        admitUntilMillis = oldest + windowMillis;
+    }
+
+    /**
+     * A kept request; {@code stages} lists only the stages it ran
+     */
+    public record SlowRequest(String method, String path, int status, Instant startedAt, double durationMs,
+                              Map<String, StageTime> stages) {
+
+        static SlowRequest of(RequestTrace trace, int status) {
+            Map<String, StageTime> stages = new LinkedHashMap<>();
+            for (Stage stage : Stage.values()) {
+                int count = trace.stageCount(stage);
+                if (count > 0) {
+                    stages.put(stage.jsonName(), new StageTime(count, millis(trace.stageNanos(stage))));
+                }
+            }
+            return new SlowRequest(trace.method(), trace.path(), status, Instant.ofEpochMilli(trace.startedAtMillis()),
+                    millis(trace.durationNanos()), stages);
+        }
+
+        long durationNanos() {
+            return Math.round(durationMs * 1_000_000);
+        }
+
+        long finishedAtMillis() {
+            return startedAt.toEpochMilli() + (long) durationMs;
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Time spent in one stage, summed over its {@code count} runs
+     */
+    public record StageTime(int count, double ms) {}
+}
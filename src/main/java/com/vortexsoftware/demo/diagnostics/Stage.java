@@ -0,0 +1,25 @@
+package com.vortexsoftware.demo.diagnostics;
+
+/**
+ * Timed stages of a request, each with its own Flight Recorder event type in {@link StageEvent}
+ *
+ * Stages may nest: {@code vortex_authenticate} includes the session stages
+ * it runs.
+ */
+public enum Stage {
+    SESSION_COOKIE("session_cookie"),
+    SESSION_TOKEN("session_token"),
+    USER_RESOLVE("user_resolve"),
+    VORTEX_AUTHENTICATE("vortex_authenticate"),
+    VORTEX_UPSTREAM("vortex_upstream");
+
+    private final String jsonName;
+
+    Stage(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+}
@@ -0,0 +1,48 @@
+package com.vortexsoftware.demo.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events for the request stages, one type per {@link Stage}
+ *
+ * They are enabled in any recording (e.g. {@code jcmd <pid> JFR.start}) unless
+ * its settings turn them off. While nothing is recording, beginning and
+ * committing one are no-ops, but the event may still be allocated. Each call
+ * site creates its concrete type directly, so those calls stay monomorphic;
+ * whether escape analysis then drops the allocation depends on the JIT
+ * inlining the whole timed block.
+ */
+@Category({"Vortex Demo", "Request"})
+@StackTrace(false)
+public abstract class StageEvent extends Event {
+
+    @Label("Detail")
+    String detail;
+
+    @Name("com.vortexsoftware.demo.SessionCookie")
+    @Label("Session Cookie Lookup")
+    public static final class SessionCookie extends StageEvent {}
+
+    @Name("com.vortexsoftware.demo.SessionToken")
+    @Label("Session Token Verification")
+    @Description("Session cache lookup, signature check and claim parse, and revocation check")
+    public static final class SessionToken extends StageEvent {}
+
+    @Name("com.vortexsoftware.demo.UserResolve")
+    @Label("Session User Resolution")
+    public static final class UserResolve extends StageEvent {}
+
+    @Name("com.vortexsoftware.demo.VortexAuthenticate")
+    @Label("Vortex authenticateUser Callback")
+    public static final class VortexAuthenticate extends StageEvent {}
+
+    @Name("com.vortexsoftware.demo.VortexUpstream")
+    @Label("Vortex API Call")
+    @Description("A call that reaches the Vortex API; the detail is the operation")
+    public static final class VortexUpstream extends StageEvent {}
+}
@@ -0,0 +1,51 @@
+package com.vortexsoftware.demo.diagnostics;
+
+/**
+ * Times one stage of the current request
+ *
+ * Use with try-with-resources. Closing it commits the stage's Flight Recorder
+ * event and adds the elapsed time to the thread's {@link RequestTrace}, if
+ * any; without a trace no clock is read.
+ *
+ * Callers create the stage's event themselves ({@code new StageEvent.SessionToken()}),
+ * so each call site constructs and commits a single concrete event type.
+ */
+public final class StageTimer implements AutoCloseable {
+
+    private final Stage stage;
+    private final StageEvent event;
+    private final RequestTrace trace;
+    private final long startNanos;
+
+    private StageTimer(Stage stage, StageEvent event, String detail) {
+        this.stage = stage;
+        this.event = event;
+        this.trace = RequestTrace.current();
+        this.startNanos = trace != null ? System.nanoTime() : 0;
+        event.detail = detail;
+        event.begin();
+    }
+
+    /**
+     * @param event a new event of the stage's type
+     */
+    public static StageTimer start(Stage stage, StageEvent event) {
+        return new StageTimer(stage, event, null);
+    }
+
+    /**
+     * @param event a new event of the stage's type
+     * @param detail e.g. the Vortex operation, recorded with the Flight Recorder event
+     */
+    public static StageTimer start(Stage stage, StageEvent event, String detail) {
+        return new StageTimer(stage, event, detail);
+    }
+
+    @Override
+    public void close() {
+        event.commit();
+        if (trace != null) {
+            trace.add(stage, System.nanoTime() - startNanos);
+        }
+    }
+}
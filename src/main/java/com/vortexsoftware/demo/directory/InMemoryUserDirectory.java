@@ -0,0 +1,79 @@
+package com.vortexsoftware.demo.directory;
+
+import com.vortexsoftware.demo.model.DemoUser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * User directory backed by on-heap hash indexes
+ */
+public class InMemoryUserDirectory implements UserDirectory {
+
+    private final List<DemoUser> users;
+    private final Map<String, Integer> byId;
+    private final Map<String, DemoUser> byEmail;
+    private final long version;
+
+    public InMemoryUserDirectory(List<DemoUser> users) {
+        this(users, 1L);
+    }
+
+    public InMemoryUserDirectory(List<DemoUser> users, long version) {
+        Map<String, Integer> ids = new HashMap<>(users.size() * 2);
+        Map<String, DemoUser> emails = new HashMap<>(users.size() * 2);
+        for (int index = 0; index < users.size(); index++) {
+            DemoUser user = users.get(index);
+            if (ids.putIfAbsent(user.getId(), index) != null) {
+                throw new IllegalArgumentException("Duplicate user id: " + user.getId());
+            }
+            if (emails.putIfAbsent(UserDirectory.normalizeEmail(user.getEmail()), user) != null) {
+                throw new IllegalArgumentException("Duplicate user email: " + user.getEmail());
+            }
+        }
+
+        this.users = List.copyOf(users);
+        this.byId = ids;
+        this.byEmail = emails;
+        this.version = version;
+    }
+
+    @Override
+    public Optional<DemoUser> findById(String id) {
+        int index = indexOf(id);
+        return index < 0 ? Optional.empty() : Optional.of(users.get(index));
+    }
+
+    @Override
+    public Optional<DemoUser> findByEmail(String email) {
+        return email == null ? Optional.empty() : Optional.ofNullable(byEmail.get(UserDirectory.normalizeEmail(email)));
+    }
+
+    @Override
+    public List<DemoUser> findAll() {
+        return users;
+    }
+
+    @Override
+    public DemoUser get(int index) {
+        return users.get(index);
+    }
+
+    @Override
+    public int indexOf(String id) {
+        Integer index = id == null ? null : byId.get(id);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package com.vortexsoftware.demo.directory;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * User directory loaded from a memory-mapped snapshot file
+ *
+ * The snapshot is UTF-8 text with one user per line and tab-separated fields:
+ *
+ * <pre>
+ * id  email  passwordHash  autojoinAdmin  role  groups
+ * </pre>
+ *
+ * where {@code passwordHash} is any encoding understood by
+ * {@link com.vortexsoftware.demo.credential.PasswordCredential} and
+ * {@code groups} is a {@code ;}-separated list of {@code type:id:name}
+ * entries. Blank lines and lines starting with {@code #} are ignored.
+ *
+ * User records stay in the mapped file (off-heap); the heap only holds the
+ * record offsets and two open-addressing index tables (by id and by
+ * normalized email), roughly 40 bytes per user. Users are decoded on lookup,
+ * and their groups only when first accessed.
+ */
+public class MappedFileUserDirectory implements UserDirectory {
+
+    private static final int ID = 0;
+    private static final int EMAIL = 1;
+    private static final int PASSWORD = 2;
+    private static final int AUTOJOIN_ADMIN = 3;
+    private static final int ROLE = 4;
+    private static final int GROUPS = 5;
+
+    private final MappedByteBuffer buffer;
+    private final int[] recordStarts;
+    private final int[] recordEnds;
+    private final int count;
+    private final Index byId;
+    private final Index byEmail;
+    private final long version;
+
+    private MappedFileUserDirectory(MappedByteBuffer buffer, long version) {
+        this.buffer = buffer;
+        this.version = version;
+
+        // Find record boundaries
+        int limit = buffer.limit();
+        int[] starts = new int[1024];
+        int[] ends = new int[1024];
+        int records = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i == limit || buffer.get(i) == '\n') {
+                int lineEnd = i;
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd > lineStart && buffer.get(lineStart) != '#') {
+                    if (records == starts.length) {
+                        starts = Arrays.copyOf(starts, records * 2);
+                        ends = Arrays.copyOf(ends, records * 2);
+                    }
+                    starts[records] = lineStart;
+                    ends[records] = lineEnd;
+                    records++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        this.recordStarts = starts;
+        this.recordEnds = ends;
+        this.count = records;
+
+        // Build the id and email indexes
+        this.byId = new Index(records, record -> fields(record)[ID]);
+        this.byEmail = new Index(records, record -> UserDirectory.normalizeEmail(fields(record)[EMAIL]));
+        for (int record = 0; record < records; record++) {
+            String[] fields = fields(record);
+            if (fields.length <= PASSWORD) {
+                throw new IllegalArgumentException("Malformed user record at offset " + recordStarts[record]);
+            }
+            byId.add(fields[ID], record);
+            byEmail.add(UserDirectory.normalizeEmail(fields[EMAIL]), record);
+        }
+    }
+
+    /**
+     * Map a user snapshot file and index it
+     */
+    public static MappedFileUserDirectory load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("User snapshot larger than 2 GB: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedFileUserDirectory(buffer, Files.getLastModifiedTime(path).toMillis());
+        }
+    }
+
+    @Override
+    public Optional<DemoUser> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        int record = byId.find(id);
+        return record < 0 ? Optional.empty() : Optional.of(toUser(fields(record)));
+    }
+
+    @Override
+    public Optional<DemoUser> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        int record = byEmail.find(UserDirectory.normalizeEmail(email));
+        return record < 0 ? Optional.empty() : Optional.of(toUser(fields(record)));
+    }
+
+    @Override
+    public List<DemoUser> findAll() {
+        List<DemoUser> users = new ArrayList<>(count);
+        for (int record = 0; record < count; record++) {
+            users.add(toUser(fields(record)));
+        }
+        return users;
+    }
+
+    @Override
+    public DemoUser get(int index) {
+        return toUser(fields(Objects.checkIndex(index, count)));
+    }
+
+    @Override
+    public int indexOf(String id) {
+        return id == null ? -1 : byId.find(id);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    private String[] fields(int record) {
+        int start = recordStarts[record];
+        byte[] bytes = new byte[recordEnds[record] - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8).split("\t", -1);
+    }
+
+    private static DemoUser toUser(String[] fields) {
+        boolean autojoinAdmin = fields.length > AUTOJOIN_ADMIN && Boolean.parseBoolean(fields[AUTOJOIN_ADMIN]);
+        String role = fields.length > ROLE && !fields[ROLE].isEmpty() ? fields[ROLE] : null;
+        List<UserGroup> groups = new LazyGroupList(fields.length > GROUPS ? fields[GROUPS] : "");
+
+        return new DemoUser(fields[ID], fields[EMAIL], fields[PASSWORD], autojoinAdmin, role, groups);
+    }
+
+    /**
+     * Group list decoded from its snapshot field on first access
+     *
+     * Most requests only need the user's id and email, so groups are not
+     * hydrated unless a handler actually asks for them.
+     */
+    private static final class LazyGroupList extends AbstractList<UserGroup> {
+        private final String encoded;
+        private volatile List<UserGroup> groups;
+
+        LazyGroupList(String encoded) {
+            this.encoded = encoded;
+        }
+
+        @Override
+        public UserGroup get(int index) {
+            return groups().get(index);
+        }
+
+        @Override
+        public int size() {
+            return groups().size();
+        }
+
+        private List<UserGroup> groups() {
+            List<UserGroup> decoded = groups;
+            if (decoded == null) {
+                decoded = new ArrayList<>();
+                if (!encoded.isEmpty()) {
+                    for (String group : encoded.split(";")) {
+                        String[] parts = group.split(":", 3);
+                        if (parts.length == 3) {
+                            decoded.add(new UserGroup(parts[0], parts[1], parts[2]));
+                        }
+                    }
+                }
+                groups = decoded;
+            }
+            return decoded;
+        }
+    }
+
+    /**
+     * Open-addressing hash index from a string key to a record number
+     */
+    private static final class Index {
+        private final int[] slots;
+        private final int[] hashes;
+        private final int mask;
+        private final IntFunction<String> keyOf;
+
+        Index(int records, IntFunction<String> keyOf) {
+            int capacity = 2;
+            while (capacity < records * 2) {
+                capacity <<= 1;
+            }
+            this.slots = new int[capacity];
+            this.hashes = new int[capacity];
+            this.mask = capacity - 1;
+            this.keyOf = keyOf;
+        }
+
+        void add(String key, int record) {
+            int hash = spread(key.hashCode());
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                if (hashes[slot] == hash && key.equals(keyOf.apply(slots[slot] - 1))) {
+                    throw new IllegalArgumentException("Duplicate user key: " + key);
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = record + 1;
+            hashes[slot] = hash;
+        }
+
+        int find(String key) {
+            int hash = spread(key.hashCode());
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                if (hashes[slot] == hash && key.equals(keyOf.apply(slots[slot] - 1))) {
+                    return slots[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.vortexsoftware.demo.directory;
+
+import com.vortexsoftware.demo.model.DemoUser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Read-only store of demo users with constant-time lookups
+ *
+ * Implementations index users by id and by normalized email so that login
+ * and session verification never scan the full user set.
+ */
+public interface UserDirectory {
+
+    /**
+     * Find a user by id
+     */
+    Optional<DemoUser> findById(String id);
+
+    /**
+     * Find a user by email (case-insensitive, surrounding whitespace ignored)
+     */
+    Optional<DemoUser> findByEmail(String email);
+
+    /**
+     * All users in directory order (materializes the whole directory)
+     */
+    List<DemoUser> findAll();
+
+    /**
+     * User at a position in directory order, from 0 to {@code size() - 1}
+     *
+     * Lets callers walk the directory one user at a time instead of
+     * materializing it with {@link #findAll()}.
+     */
+    DemoUser get(int index);
+
+    /**
+     * Position of a user in directory order, or -1 if there is no user with that id
+     */
+    int indexOf(String id);
+
+    /**
+     * Number of users in the directory
+     */
+    int size();
+
+    /**
+     * Version of the loaded user set, changes whenever the users change
+     */
+    long version();
+
+    /**
+     * Normalize an email address for indexing and lookups
+     */
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.vortexsoftware.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.vortexsoftware.demo.credential.PasswordCredential;
+
 import java.util.List;
 
 /**
@@ -13,6 +17,12 @@ public class DemoUser {
     private String email;
     private String password;
 
+    // Password hash decoded to raw bytes on first use
+    private transient volatile PasswordCredential credential;
+
+    // Public view built on first use; reset whenever a public field changes
+    private transient volatile PublicUser publicView;
+
     // New simplified field (preferred)
     private boolean isAutojoinAdmin;
 
@@ -38,6 +48,7 @@ public class DemoUser {
 
     public void setId(String id) {
         this.id = id;
+        this.publicView = null;
     }
 
     public String getEmail() {
@@ -46,14 +57,31 @@ public class DemoUser {
 
     public void setEmail(String email) {
         this.email = email;
+        this.publicView = null;
     }
 
+    // Accepted when deserializing, never serialized
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     public String getPassword() {
         return password;
     }
 
     public void setPassword(String password) {
         this.password = password;
+        this.credential = null;
+    }
+
+    /**
+     * Decoded password credential, or null if the user has no password
+     */
+    @JsonIgnore
+    public PasswordCredential getCredential() {
+        PasswordCredential decoded = credential;
+        if (decoded == null && password != null) {
+            decoded = PasswordCredential.parse(password);
+            credential = decoded;
+        }
+        return decoded;
     }
 
     public boolean isAutojoinAdmin() {
@@ -62,6 +90,7 @@ public class DemoUser {
 
     public void setAutojoinAdmin(boolean autoJoinAdmin) {
         isAutojoinAdmin = autoJoinAdmin;
+        this.publicView = null;
     }
 
     public String getRole() {
@@ -70,6 +99,7 @@ public class DemoUser {
 
     public void setRole(String role) {
         this.role = role;
+        this.publicView = null;
     }
 
     public List<UserGroup> getGroups() {
@@ -78,13 +108,19 @@ public class DemoUser {
 
     public void setGroups(List<UserGroup> groups) {
         this.groups = groups;
+        this.publicView = null;
     }
 
     /**
-     * Create a copy without password for API responses
+     * Immutable public view of this user for API responses, built once and reused
      */
-    public DemoUser withoutPassword() {
-        return new DemoUser(id, email, null, isAutojoinAdmin, role, groups);
+    public PublicUser toPublicUser() {
+        PublicUser view = publicView;
+        if (view == null) {
+            view = PublicUser.of(this);
+            publicView = view;
+        }
+        return view;
     }
 
     @Override
@@ -0,0 +1,137 @@
+package com.vortexsoftware.demo.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Immutable public view of a DemoUser, as returned by the API
+ *
+ * Has no password field at all, so the password cannot end up in a response.
+ * Its JSON is encoded once, when the view is built, and written as a raw
+ * value (with its UTF-8 bytes cached too). Views are built once per DemoUser
+ * and reused, see {@link DemoUser#toPublicUser()}.
+ */
+@JsonSerialize(using = PublicUser.Serializer.class)
+public final class PublicUser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String id;
+    private final String email;
+    private final String role;
+    private final List<Group> groups;
+    private final boolean autojoinAdmin;
+    private final SerializedString json;
+
+    private PublicUser(String id, String email, String role, List<Group> groups, boolean autojoinAdmin) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.groups = groups;
+        this.autojoinAdmin = autojoinAdmin;
+        this.json = new SerializedString(encode());
+    }
+
+    /**
+     * Build the public view of a user
+     */
+    public static PublicUser of(DemoUser user) {
+        List<Group> groups = user.getGroups() == null ? null : user.getGroups().stream()
+                .map(g -> new Group(g.getType(), g.getId(), g.getName()))
+                .toList();
+        return new PublicUser(user.getId(), user.getEmail(), user.getRole(), groups, user.isAutojoinAdmin());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    public boolean isAutojoinAdmin() {
+        return autojoinAdmin;
+    }
+
+    /**
+     * The view's JSON object
+     */
+    public String toJson() {
+        return json.getValue();
+    }
+
+    private String encode() {
+        StringWriter out = new StringWriter(128);
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            writeFields(gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private void writeFields(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("id", id);
+        gen.writeStringField("email", email);
+        gen.writeStringField("role", role);
+        if (groups == null) {
+            gen.writeNullField("groups");
+        } else {
+            gen.writeArrayFieldStart("groups");
+            for (Group group : groups) {
+                gen.writeStartObject();
+                gen.writeStringField("type", group.type());
+                gen.writeStringField("id", group.id());
+                gen.writeStringField("name", group.name());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeBooleanField("autojoinAdmin", autojoinAdmin);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public String toString() {
+        return "PublicUser" + toJson();
+    }
+
+    /**
+     * Group membership as shown to clients
+     */
+    public record Group(String type, String id, String name) {}
+
+    /**
+     * Writes the view's encoded JSON
+     */
+    public static final class Serializer extends StdSerializer<PublicUser> {
+
+        public Serializer() {
+            super(PublicUser.class);
+        }
+
+        @Override
+        public void serialize(PublicUser user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeRawValue(user.json);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.vortexsoftware.demo.overload;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit for incoming requests that adapts to observed latency
+ *
+ * A gradient algorithm: the limit is scaled by the ratio of the long-term to
+ * the recent average latency, so it shrinks as soon as requests start to
+ * queue (recent latency rises) and grows by about {@code sqrt(limit)} per
+ * window while latency stays flat. Latency is averaged over windows of at
+ * least {@code window} and {@code min-samples} requests; the thread that
+ * closes a window updates the limit, so requests never lock.
+ *
+ * Admission depends on the {@link Priority}: sheddable requests are turned
+ * away once {@code sheddable-share} of the limit is in flight, normal ones at
+ * the limit, and critical ones are always let in. Only normal requests are
+ * sampled: critical ones are much cheaper than the rest, and sheddable ones
+ * mostly wait on Vortex, so a slow upstream would otherwise shrink the limit
+ * and shed logins. The others still count as in flight.
+ */
+@Component
+public class AdaptiveConcurrencyLimit {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    // Long-term latency follows the recent one over about this many windows
+    private static final int LONG_WINDOWS = 600;
+    // Recent latency may reach this multiple of the long-term one before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double sheddableShare;
+    private final long windowNanos;
+    private final int minSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder[] rejected = new LongAdder[PRIORITIES.length];
+    private volatile double limit;
+
+    // Current window, written by any request thread
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowEnd;
+
+    // Written only by the thread that closes a window
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(@Value("${overload.enabled:true}") boolean enabled,
+                                    @Value("${overload.initial-limit:100}") int initialLimit,
+                                    @Value("${overload.min-limit:20}") int minLimit,
+                                    @Value("${overload.max-limit:1000}") int maxLimit,
+                                    @Value("${overload.sheddable-share:0.8}") double sheddableShare,
+                                    @Value("${overload.window:100ms}") Duration window,
+                                    @Value("${overload.min-samples:10}") int minSamples) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.sheddableShare = sheddableShare;
+        this.windowNanos = window.toNanos();
+        this.minSamples = minSamples;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Admit a request, or count it as rejected
+     *
+     * Every admitted request must be followed by one {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        if (priority == Priority.CRITICAL) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+
+        double cap = priority == Priority.SHEDDABLE ? limit * sheddableShare : limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                rejected[priority.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Finish an admitted request
+     *
+     * @param rttNanos how long it took
+     */
+    public void release(Priority priority, long rttNanos) {
+        inFlight.decrementAndGet();
+        if (priority != Priority.NORMAL) {
+            return;
+        }
+
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowSamples.sum() >= minSamples && windowEnd.compareAndSet(end, now + windowNanos)) {
+            long samples = windowSamples.sumThenReset();
+            long total = windowRttNanos.sumThenReset();
+            int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+            if (samples > 0) {
+                update((double) total / samples, maxInFlight);
+            }
+        }
+    }
+
+    private void update(double rttNanos, int maxInFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOWS;
+            // After a lasting slowdown, let the baseline catch up rather than keep the limit pinned down
+            if (longRttNanos / rttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        // Don't grow a limit that traffic is nowhere near, or it would be meaningless when load arrives
+        if (target > current && maxInFlight < current / 2) {
+            return;
+        }
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**
+     * Current limit on requests in flight
+     */
+    public double limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Requests of a priority turned away so far
+     */
+    public long rejectedCount(Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+}
@@ -0,0 +1,111 @@
+package com.vortexsoftware.demo.overload;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies the {@link AdaptiveConcurrencyLimit} at the start of the security filter chain
+ *
+ * Not a bean, so the servlet container does not register it a second time
+ * outside the chain. Rejected requests get a 503 straight away. An async
+ * request (e.g. a streamed response) holds its slot until it completes, times
+ * out or fails, not just until its first dispatch returns.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final byte[] OVERLOADED = "{\"error\":\"Server overloaded\"}".getBytes(StandardCharsets.UTF_8);
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limit.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = Priority.of(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        if (!limit.tryAcquire(priority)) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(OVERLOADED.length);
+            response.getOutputStream().write(OVERLOADED);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(priority, start));
+            }
+        } finally {
+            if (!async) {
+                limit.release(priority, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Releases an async request's slot once, whichever way it ends
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final Priority priority;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(Priority priority, long start) {
+            this.priority = priority;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Async started again from an async dispatch: keep holding the slot until that ends
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(priority, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.vortexsoftware.demo.overload;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link ConcurrencyLimitFilter}, first in the reactive security chain
+ *
+ * A request is in flight until its response completes, errors or is cancelled.
+ */
+public class ConcurrencyLimitWebFilter implements WebFilter {
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    public ConcurrencyLimitWebFilter(AdaptiveConcurrencyLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!limit.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        Priority priority = Priority.of(path(exchange.getRequest()));
+        if (!limit.tryAcquire(priority)) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, ConcurrencyLimitFilter.RETRY_AFTER_SECONDS);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.fromSupplier(
+                    () -> response.bufferFactory().wrap(ConcurrencyLimitFilter.OVERLOADED)));
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> limit.release(priority, System.nanoTime() - start));
+    }
+
+    /**
+     * Path within the application, decoded, without {@code ;} parameters or empty segments
+     */
+    private static String path(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        StringBuilder normalized = new StringBuilder();
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                normalized.append('/').append(segment.valueToMatch());
+            }
+        }
+        if (normalized.isEmpty() || path.value().endsWith("/")) {
+            normalized.append('/');
+        }
+        return normalized.toString();
+    }
+}
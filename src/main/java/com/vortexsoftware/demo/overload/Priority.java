@@ -0,0 +1,50 @@
+package com.vortexsoftware.demo.overload;
+
+/**
+ * Priority class of a request for the {@link AdaptiveConcurrencyLimit}
+ *
+ * On the servlet stack static assets, the frontend ({@code /}, {@code /index.html})
+ * and {@code /health} skip the security chain (see SecurityConfig), and with it
+ * the limit: they are neither counted nor shed.
+ */
+public enum Priority {
+    /**
+     * Health checks, metrics scrapes and {@code /api/auth/me}: never shed
+     */
+    CRITICAL("critical"),
+    /**
+     * Everything else (login, logout, the frontend on the reactive stack): shed once the limit is reached
+     */
+    NORMAL("normal"),
+    /**
+     * {@code /api/vortex/*} and {@code /api/demo/*}: shed first, before the limit is reached
+     */
+    SHEDDABLE("sheddable");
+
+    private final String tagValue;
+
+    Priority(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+
+    /**
+     * Priority of a request by its path within the application
+     *
+     * The path must already be decoded and normalized (no context path,
+     * {@code ;} parameters or repeated slashes), or requests could pick their
+     * own class.
+     */
+    public static Priority of(String path) {
+        if (path.equals("/health") || path.equals("/api/auth/me") || path.startsWith("/actuator/")) {
+            return CRITICAL;
+        }
+        if (path.startsWith("/api/vortex/") || path.startsWith("/api/demo/")) {
+            return SHEDDABLE;
+        }
+        return NORMAL;
+    }
+}
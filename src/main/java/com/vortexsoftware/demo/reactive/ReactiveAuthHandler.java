@@ -0,0 +1,250 @@
+package com.vortexsoftware.demo.reactive;
+
+import com.vortexsoftware.demo.authorization.GroupMembers;
+import com.vortexsoftware.demo.controller.AuthController.LoginRequest;
+import com.vortexsoftware.demo.controller.DemoUsersResponse;
+import com.vortexsoftware.demo.controller.PreSerializedJson;
+import com.vortexsoftware.demo.controller.UserListing;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.service.AuthService;
+import com.vortexsoftware.demo.throttle.LoginThrottle;
+import com.vortexsoftware.demo.vortex.VortexPrefetch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reactive handlers for the {@code /api/auth} and {@code /api/demo} routes
+ *
+ * Same request and response shapes as AuthController and DemoController.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAuthHandler {
+
+    private final AuthService authService;
+    private final ReactiveSessionResolver sessionResolver;
+    private final DemoUsersResponse demoUsersResponse;
+    private final UserListing userListing;
+    private final GroupMembers groupMembers;
+    private final VortexPrefetch vortexPrefetch;
+    private final LoginThrottle loginThrottle;
+
+    @Autowired
+    public ReactiveAuthHandler(AuthService authService, ReactiveSessionResolver sessionResolver,
+                               DemoUsersResponse demoUsersResponse, UserListing userListing,
+                               GroupMembers groupMembers, VortexPrefetch vortexPrefetch,
+                               LoginThrottle loginThrottle) {
+        this.authService = authService;
+        this.sessionResolver = sessionResolver;
+        this.demoUsersResponse = demoUsersResponse;
+        this.userListing = userListing;
+        this.groupMembers = groupMembers;
+        this.vortexPrefetch = vortexPrefetch;
+        this.loginThrottle = loginThrottle;
+    }
+
+    /**
+     * Login with email and password
+     *
+     * Password hashing can be expensive (PBKDF2), so it runs off the event loop,
+     * after the rate limit check.
+     */
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return request.bodyToMono(LoginRequest.class)
+                .defaultIfEmpty(new LoginRequest())
+                .flatMap(body -> {
+                    if (body.getEmail() == null || body.getPassword() == null) {
+                        return ServerResponse.badRequest()
+                                .bodyValue(Map.of("error", "Email and password required"));
+                    }
+
+                    Optional<Duration> throttled = loginThrottle.tryAcquire(clientIp(request), body.getEmail());
+                    if (throttled.isPresent()) {
+                        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER,
+                                        String.valueOf(LoginThrottle.retryAfterSeconds(throttled.get())))
+                                .bodyValue(Map.of("error", "Too many login attempts"));
+                    }
+
+                    return Mono.fromCallable(() -> authService.authenticateUser(body.getEmail(), body.getPassword()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(userOpt -> {
+                                if (userOpt.isEmpty()) {
+                                    return ServerResponse.status(401)
+                                            .bodyValue(Map.of("error", "Invalid credentials"));
+                                }
+
+                                DemoUser user = userOpt.get();
+                                String sessionToken = authService.createSessionJWT(user);
+                                vortexPrefetch.start(sessionToken, user);
+                                return ServerResponse.ok()
+                                        .cookie(authService.sessionCookie(sessionToken))
+                                        .bodyValue(Map.of(
+                                                "success", true,
+                                                "user", user.toPublicUser()
+                                        ));
+                            });
+                });
+    }
+
+    /**
+     * Logout (revoke and clear session)
+     *
+     * Revocation may write the snapshot file, so it runs off the event loop.
+     */
+    public Mono<ServerResponse> logout(ServerRequest request) {
+        return sessionResolver.sessionToken(request)
+                .flatMap(token -> Mono.fromRunnable(() -> {
+                            vortexPrefetch.cancel(token);
+                            authService.revokeSession(token);
+                        }).subscribeOn(Schedulers.boundedElastic()))
+                .then(ServerResponse.ok()
+                        .cookie(authService.clearedSessionCookie())
+                        .bodyValue(Map.of("success", true)));
+    }
+
+    /**
+     * Logout everywhere (revoke all of the current user's sessions)
+     */
+    public Mono<ServerResponse> logoutAll(ServerRequest request) {
+        return sessionResolver.currentUser(request)
+                .flatMap(user -> Mono.fromRunnable(() -> {
+                            vortexPrefetch.cancelUser(user.getId());
+                            authService.revokeAllSessions(user.getId());
+                        }).subscribeOn(Schedulers.boundedElastic())
+                        .then(ServerResponse.ok()
+                                .cookie(authService.clearedSessionCookie())
+                                .bodyValue(Map.of("success", true))))
+                .switchIfEmpty(ServerResponse.status(401).bodyValue(Map.of("error", "Not authenticated")));
+    }
+
+    /**
+     * Get current user info
+     */
+    public Mono<ServerResponse> me(ServerRequest request) {
+        return sessionResolver.currentUser(request)
+                .flatMap(user -> ServerResponse.ok().bodyValue(Map.of("user", user.toPublicUser())))
+                .switchIfEmpty(ServerResponse.status(401).bodyValue(Map.of("error", "Not authenticated")));
+    }
+
+    /**
+     * Get demo users (pre-serialized and ETag-validated, unless paginated, streamed or too many)
+     */
+    public Mono<ServerResponse> demoUsers(ServerRequest request) {
+        boolean stream = request.headers().accept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        String cursor = request.queryParam("cursor").orElse(null);
+        String limitParam = request.queryParam("limit").orElse(null);
+        String fields = request.queryParam("fields").orElse(null);
+        Optional<PreSerializedJson> allUsers = stream || cursor != null || limitParam != null || fields != null
+                ? Optional.empty()
+                : demoUsersResponse.get();
+        if (allUsers.isEmpty()) {
+            return userListing(stream, cursor, limitParam, fields);
+        }
+
+        PreSerializedJson response = allUsers.get();
+        if (response.matches(request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(response.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(response.etag())
+                .cacheControl(CacheControl.noCache())
+                .bodyValue(response.body());
+    }
+
+    /**
+     * Paginated or streamed user listing; streamed users are produced as the client reads them
+     */
+    private Mono<ServerResponse> userListing(boolean stream, String cursor, String limitParam, String fields) {
+        UserListing.Query query;
+        try {
+            Integer limit = limitParam != null ? Integer.valueOf(limitParam) : null;
+            query = userListing.query(cursor, limit, fields, stream);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", e.getMessage()));
+        }
+
+        if (stream) {
+            Flux<DataBuffer> lines = Flux.range(query.start(), query.end() - query.start())
+                    .<DataBuffer>map(index -> DefaultDataBufferFactory.sharedInstance.wrap(userListing.ndjsonLine(query, index)))
+                    .subscribeOn(Schedulers.boundedElastic());
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(BodyInserters.fromDataBuffers(lines));
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userListing.page(query));
+    }
+
+    /**
+     * Protected route that requires authentication
+     */
+    public Mono<ServerResponse> protectedResource(ServerRequest request) {
+        return sessionResolver.currentUser(request)
+                .flatMap(user -> ServerResponse.ok().bodyValue(Map.of(
+                        "message", "This is a protected route!",
+                        "user", user.toPublicUser(),
+                        "timestamp", Instant.now().toString()
+                )))
+                .switchIfEmpty(ServerResponse.status(401).bodyValue(Map.of("error", "Not authenticated")));
+    }
+
+    /**
+     * Members of a group, one page at a time (members of the group and admins only)
+     */
+    public Mono<ServerResponse> groupMembers(ServerRequest request) {
+        String groupType = request.pathVariable("groupType");
+        String groupId = request.pathVariable("groupId");
+        int offset;
+        int limit;
+        try {
+            offset = request.queryParam("offset").map(Integer::parseInt).orElse(0);
+            limit = request.queryParam("limit").map(Integer::parseInt).orElse(GroupMembers.DEFAULT_LIMIT);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", "offset and limit must be integers"));
+        }
+
+        return sessionResolver.currentUser(request)
+                .flatMap(user -> groupMembers.canView(user, groupType, groupId)
+                        ? ServerResponse.ok().bodyValue(groupMembers.page(groupType, groupId, offset, limit))
+                        : ServerResponse.status(403).bodyValue(Map.of("error", "Forbidden")))
+                .switchIfEmpty(ServerResponse.status(401).bodyValue(Map.of("error", "Not authenticated")));
+    }
+
+    /**
+     * Client address, as the servlet stack's {@code getRemoteAddr()} reports it
+     *
+     * Behind a trusted proxy this is the forwarded client (see {@link TrustedProxyForwarding}),
+     * which carries no resolved address.
+     */
+    private static String clientIp(ServerRequest request) {
+        return request.remoteAddress()
+                .map(address -> address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString())
+                .orElse(null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.vortexsoftware.demo.reactive;
+
+import com.vortexsoftware.demo.overload.AdaptiveConcurrencyLimit;
+import com.vortexsoftware.demo.overload.ConcurrencyLimitWebFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reactive serving stack, enabled with the {@code reactive} profile
+ *
+ * Serves the same {@code /api/auth}, {@code /api/demo} and {@code /api/vortex}
+ * routes as the Spring MVC controllers, on Netty's small fixed pool of
+ * event-loop threads. Activate with {@code --spring.profiles.active=reactive}.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveConfiguration {
+
+    /**
+     * Serve on Netty rather than Tomcat (which is also on the classpath for the MVC stack),
+     * taking the client address from X-Forwarded-For only when a trusted proxy sent it
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            @Value("${server.trusted-proxies}") String trustedProxies) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(new TrustedProxyForwarding(Pattern.compile(trustedProxies)));
+        return factory;
+    }
+
+    /**
+     * Same policy as SecurityConfig: our own session auth, Spring Security allows everything,
+     * behind the adaptive concurrency limit
+     */
+    @Bean
+    public SecurityWebFilterChain reactiveFilterChain(ServerHttpSecurity http, AdaptiveConcurrencyLimit concurrencyLimit) {
+        return http
+                .addFilterAt(new ConcurrencyLimitWebFilter(concurrencyLimit), SecurityWebFiltersOrder.FIRST)
+                .csrf(csrf -> csrf.disable())
+                .authorizeExchange(exchanges -> exchanges
+                        .anyExchange().permitAll()
+                )
+                .formLogin(form -> form.disable())
+                .httpBasic(basic -> basic.disable())
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveRoutes(ReactiveAuthHandler auth, ReactiveVortexHandler vortex) {
+        return RouterFunctions.route()
+                .path("/api/auth", builder -> builder
+                        .POST("/login", auth::login)
+                        .POST("/logout", auth::logout)
+                        .POST("/logout-all", auth::logoutAll)
+                        .GET("/me", auth::me))
+                .path("/api/demo", builder -> builder
+                        .GET("/users", auth::demoUsers)
+                        .GET("/protected", auth::protectedResource)
+                        .GET("/groups/{groupType}/{groupId}/members", auth::groupMembers))
+                .path("/api/vortex", builder -> builder
+                        .POST("/jwt", vortex::jwt)
+                        .POST("/batch", vortex::batch)
+                        .GET("/invitations/by-group/{groupType}/{groupId}", vortex::invitationsByGroup)
+                        .DELETE("/invitations/by-group/{groupType}/{groupId}", vortex::deleteInvitationsByGroup)
+                        .POST("/invitations/accept", vortex::acceptInvitations)
+                        .POST("/invitations/{invitationId}/reinvite", vortex::reinvite)
+                        .GET("/invitations/{invitationId}", vortex::invitation)
+                        .DELETE("/invitations/{invitationId}", vortex::revokeInvitation)
+                        .GET("/invitations", vortex::invitationsByTarget))
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.vortexsoftware.demo.reactive;
+
+import com.vortexsoftware.demo.diagnostics.Stage;
+import com.vortexsoftware.demo.diagnostics.StageEvent;
+import com.vortexsoftware.demo.diagnostics.StageTimer;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.service.AuthService;
+import com.vortexsoftware.sdk.spring.VortexConfig.VortexUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code VortexConfig.authenticateUser}
+ *
+ * Resolves the current user from the request passed in, rather than from
+ * thread-bound request attributes, so it works on any event-loop thread.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveSessionResolver {
+
+    private final AuthService authService;
+
+    @Autowired
+    public ReactiveSessionResolver(AuthService authService) {
+        this.authService = authService;
+    }
+
+    /**
+     * Current user from the session cookie, or empty if not authenticated
+     */
+    public Mono<DemoUser> currentUser(ServerRequest request) {
+        return sessionToken(request).flatMap(token -> Mono.justOrEmpty(authService.verifySessionJWT(token)));
+    }
+
+    /**
+     * Raw session token from the request's cookies
+     */
+    public Mono<String> sessionToken(ServerRequest request) {
+        try (StageTimer timer = StageTimer.start(Stage.SESSION_COOKIE, new StageEvent.SessionCookie())) {
+            HttpCookie cookie = request.cookies().getFirst(authService.getSessionCookieName());
+            return cookie == null ? Mono.empty() : Mono.just(cookie.getValue());
+        }
+    }
+
+    /**
+     * Current user in the Vortex SDK's format (new simplified format)
+     */
+    public Mono<VortexUser> currentVortexUser(ServerRequest request) {
+        return currentUser(request).map(ReactiveSessionResolver::toVortexUser);
+    }
+
+    static VortexUser toVortexUser(DemoUser demoUser) {
+        return new VortexUser(
+                demoUser.getId(),
+                demoUser.getEmail(),
+                demoUser.isAutojoinAdmin()
+        );
+    }
+}
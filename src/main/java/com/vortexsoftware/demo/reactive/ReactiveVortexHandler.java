@@ -0,0 +1,213 @@
+package com.vortexsoftware.demo.reactive;
+
+import com.vortexsoftware.demo.authorization.VortexAuthorization;
+import com.vortexsoftware.demo.authorization.VortexAuthorization.GroupRef;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.vortex.InvitationBatch;
+import com.vortexsoftware.demo.vortex.OutboundRejectedException;
+import com.vortexsoftware.demo.vortex.VortexPrefetch;
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+import com.vortexsoftware.sdk.types.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Reactive handlers for the {@code /api/vortex} routes
+ *
+ * Mirrors the SDK's VortexController on the reactive stack. The user comes
+ * from {@link ReactiveSessionResolver}, operations are authorized by the
+ * same {@link VortexAuthorization} policy as the servlet stack's VortexConfig
+ * (with the group taken from the path variables), and the blocking
+ * VortexClient calls run on the bounded-elastic scheduler so they never hold
+ * an event-loop thread.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveVortexHandler {
+
+    private final VortexClient vortexClient;
+    private final VortexAuthorization vortexAuthorization;
+    private final ReactiveSessionResolver sessionResolver;
+    private final InvitationBatch invitationBatch;
+    private final VortexPrefetch vortexPrefetch;
+
+    @Autowired
+    public ReactiveVortexHandler(VortexClient vortexClient, VortexAuthorization vortexAuthorization,
+                                 ReactiveSessionResolver sessionResolver, InvitationBatch invitationBatch,
+                                 VortexPrefetch vortexPrefetch) {
+        this.vortexClient = vortexClient;
+        this.vortexAuthorization = vortexAuthorization;
+        this.sessionResolver = sessionResolver;
+        this.invitationBatch = invitationBatch;
+        this.vortexPrefetch = vortexPrefetch;
+    }
+
+    /**
+     * The session's Vortex JWT, from its login prefetch when there is one
+     */
+    public Mono<ServerResponse> jwt(ServerRequest request) {
+        return authorized(request, "JWT", user -> sessionResolver.sessionToken(request)
+                .flatMap(sessionToken -> upstream(() -> {
+                    List<String> adminScopes = new ArrayList<>();
+                    if (user.isAutojoinAdmin()) {
+                        adminScopes.add("autojoin");
+                    }
+                    User vortexUser = new User(user.getId(), user.getEmail(), adminScopes);
+                    return Map.of("jwt", vortexPrefetch.takeJwt(sessionToken, vortexUser)
+                            .orElseGet(() -> vortexClient.generateJwt(vortexUser)));
+                })));
+    }
+
+    public Mono<ServerResponse> invitationsByTarget(ServerRequest request) {
+        String targetType = request.queryParam("targetType").orElse(null);
+        String targetValue = request.queryParam("targetValue").orElse(null);
+        if (targetType == null || targetValue == null) {
+            return ServerResponse.badRequest()
+                    .bodyValue(Map.of("error", "targetType and targetValue are required"));
+        }
+
+        return authorized(request, "GET_INVITATIONS", user -> upstream(() ->
+                Map.of("invitations", vortexClient.getInvitationsByTarget(targetType, targetValue))));
+    }
+
+    public Mono<ServerResponse> invitation(ServerRequest request) {
+        String invitationId = request.pathVariable("invitationId");
+        return authorized(request, "GET_INVITATION", user -> upstream(() ->
+                vortexClient.getInvitation(invitationId)));
+    }
+
+    public Mono<ServerResponse> revokeInvitation(ServerRequest request) {
+        String invitationId = request.pathVariable("invitationId");
+        return authorized(request, "REVOKE_INVITATION", user -> upstream(() -> {
+            vortexClient.revokeInvitation(invitationId);
+            return Map.of("success", true);
+        }));
+    }
+
+    public Mono<ServerResponse> acceptInvitations(ServerRequest request) {
+        return authorized(request, "ACCEPT_INVITATIONS", user -> request.bodyToMono(AcceptRequest.class)
+                .flatMap(body -> {
+                    if (body.invitationIds() == null || body.target() == null) {
+                        return ServerResponse.badRequest()
+                                .bodyValue(Map.of("error", "invitationIds and target are required"));
+                    }
+                    InvitationTarget target = new InvitationTarget(body.target().type(), body.target().value());
+                    return upstream(() -> vortexClient.acceptInvitations(body.invitationIds(), target));
+                })
+                .switchIfEmpty(ServerResponse.badRequest()
+                        .bodyValue(Map.of("error", "invitationIds and target are required"))));
+    }
+
+    /**
+     * A group's invitations, from the session's login prefetch when there is one
+     */
+    public Mono<ServerResponse> invitationsByGroup(ServerRequest request) {
+        String groupType = request.pathVariable("groupType");
+        String groupId = request.pathVariable("groupId");
+        return authorized(request, "GET_GROUP_INVITATIONS", new GroupRef(groupType, groupId), user ->
+                sessionResolver.sessionToken(request).flatMap(sessionToken -> upstream(() -> {
+                    List<InvitationResult> prefetched = vortexPrefetch
+                            .takeGroupInvitations(sessionToken, groupType, groupId).orElse(null);
+                    return Map.of("invitations", prefetched != null
+                            ? prefetched
+                            : vortexClient.getInvitationsByGroup(groupType, groupId));
+                })));
+    }
+
+    public Mono<ServerResponse> deleteInvitationsByGroup(ServerRequest request) {
+        String groupType = request.pathVariable("groupType");
+        String groupId = request.pathVariable("groupId");
+        return authorized(request, "DELETE_GROUP_INVITATIONS", new GroupRef(groupType, groupId), user -> upstream(() -> {
+            vortexClient.deleteInvitationsByGroup(groupType, groupId);
+            return Map.of("success", true);
+        }));
+    }
+
+    public Mono<ServerResponse> reinvite(ServerRequest request) {
+        String invitationId = request.pathVariable("invitationId");
+        return authorized(request, "REINVITE", user -> upstream(() ->
+                vortexClient.reinvite(invitationId)));
+    }
+
+    /**
+     * Many lookups and revocations in one request, with per-item results
+     *
+     * Items are authorized individually by the batch, so only authentication
+     * is checked here.
+     */
+    public Mono<ServerResponse> batch(ServerRequest request) {
+        return sessionResolver.currentUser(request)
+                .flatMap(user -> request.bodyToMono(InvitationBatch.Request.class)
+                        .flatMap(body -> Mono.fromCallable(() -> invitationBatch.execute(body, user.getId()))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .flatMap(result -> ServerResponse.ok().bodyValue(result))
+                                .onErrorResume(IllegalArgumentException.class, e ->
+                                        ServerResponse.badRequest().bodyValue(Map.of("error", e.getMessage()))))
+                        .switchIfEmpty(ServerResponse.badRequest()
+                                .bodyValue(Map.of("error", "Request body required"))))
+                .switchIfEmpty(ServerResponse.status(401).bodyValue(Map.of("error", "Unauthorized")));
+    }
+
+    /**
+     * Resolve and authorize the current user, then run the handler
+     */
+    private Mono<ServerResponse> authorized(ServerRequest request, String operation,
+                                            Function<DemoUser, Mono<ServerResponse>> handler) {
+        return authorized(request, operation, null, handler);
+    }
+
+    /**
+     * Resolve and authorize the current user for an operation on a group, then run the handler
+     */
+    private Mono<ServerResponse> authorized(ServerRequest request, String operation, GroupRef group,
+                                            Function<DemoUser, Mono<ServerResponse>> handler) {
+        return sessionResolver.currentUser(request)
+                .flatMap(user -> {
+                    if (!vortexAuthorization.authorize(operation, user.getId(), group)) {
+                        return ServerResponse.status(403).bodyValue(Map.of("error", "Forbidden"));
+                    }
+                    return handler.apply(user);
+                })
+                .switchIfEmpty(ServerResponse.status(401).bodyValue(Map.of("error", "Unauthorized")));
+    }
+
+    /**
+     * Run a blocking VortexClient call off the event loop and map its result or failure
+     */
+    private Mono<ServerResponse> upstream(Callable<Object> call) {
+        return Mono.fromCallable(call)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(result -> ServerResponse.ok().bodyValue(result))
+                .switchIfEmpty(ServerResponse.noContent().build())
+                .onErrorResume(OutboundRejectedException.class, e -> e.isTimeout()
+                        ? ServerResponse.status(504).bodyValue(Map.of("error", "Vortex API timed out"))
+                        : ServerResponse.status(503)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .bodyValue(Map.of("error", "Vortex API busy, try again")))
+                .onErrorResume(VortexException.class, e ->
+                        ServerResponse.status(500).bodyValue(Map.of("error", String.valueOf(e.getMessage()))));
+    }
+
+    /**
+     * Body of {@code POST /api/vortex/invitations/accept}
+     */
+    public record AcceptRequest(List<String> invitationIds, Target target) {
+
+        public record Target(String type, String value) {}
+    }
+}
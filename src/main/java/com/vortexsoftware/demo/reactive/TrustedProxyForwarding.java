@@ -0,0 +1,55 @@
+package com.vortexsoftware.demo.reactive;
+
+import io.netty.handler.codec.http.HttpRequest;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import reactor.netty.http.server.ConnectionInfo;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.util.regex.Pattern;
+
+/**
+ * Takes the client address from {@code X-Forwarded-For}, but only from trusted proxies
+ *
+ * Netty's own forwarded-header support believes every client. This follows
+ * Tomcat's RemoteIpValve instead, so both stacks agree: when the peer matches
+ * {@code server.trusted-proxies}, the client is the last X-Forwarded-For entry
+ * that is not itself a trusted proxy; otherwise the header is ignored.
+ */
+class TrustedProxyForwarding implements NettyServerCustomizer {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final Pattern trustedProxies;
+
+    TrustedProxyForwarding(Pattern trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Override
+    public HttpServer apply(HttpServer server) {
+        return server.forwarded(this::clientAddress);
+    }
+
+    private ConnectionInfo clientAddress(ConnectionInfo info, HttpRequest request) {
+        InetSocketAddress peer = info.getRemoteAddress();
+        String forwardedFor = request.headers().get(X_FORWARDED_FOR);
+        if (forwardedFor == null || peer == null || peer.getAddress() == null
+                || !isTrusted(peer.getAddress().getHostAddress())) {
+            return info;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && (i == 0 || !isTrusted(hop))) {
+                return info.withRemoteAddress(InetSocketAddress.createUnresolved(hop, peer.getPort()));
+            }
+        }
+        return info;
+    }
+
+    private boolean isTrusted(String address) {
+        return trustedProxies.matcher(address).matches();
+    }
+}
@@ -0,0 +1,278 @@
+package com.vortexsoftware.demo.revocation;
+
+import com.vortexsoftware.demo.service.TokenId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revoked session tokens and per-user "valid after" cutoffs
+ *
+ * <ul>
+ *   <li>A revoked token id stays listed until the token's own expiry.</li>
+ *   <li>A user cutoff rejects every token of that user issued before it, and is
+ *       dropped once all such tokens have expired anyway.</li>
+ * </ul>
+ *
+ * {@link #isRevoked} runs on every session verification and never locks: a
+ * {@link TokenFilter} answers "definitely not revoked" for almost every token,
+ * and only possible matches consult the exact set. Writes are rare and
+ * serialized. Expired entries are purged periodically, and when
+ * {@code session.revocation.snapshot} is set the entries are written to that
+ * file so revocations survive a restart: in the background, at most
+ * {@code session.revocation.persist-delay} after a change, and on close. A
+ * failed write is logged and retried at the next purge; it never fails the
+ * revocation itself.
+ */
+@Component
+public class SessionRevocations implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRevocations.class);
+    private static final int SNAPSHOT_MAGIC = 0x53525631; // "SRV1"
+
+    private final Map<TokenId, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Cutoff> userCutoffs = new ConcurrentHashMap<>();
+    private final int expectedTokens;
+    private final Path snapshot;
+    private final long persistDelayMillis;
+    private final ScheduledExecutorService purger;
+    private final AtomicBoolean persistPending = new AtomicBoolean();
+
+    private volatile TokenFilter filter;
+    private int filterCapacity;
+
+    public SessionRevocations(@Value("${session.revocation.snapshot:#{null}}") String snapshot,
+                              @Value("${session.revocation.expected-tokens:100000}") int expectedTokens,
+                              @Value("${session.revocation.purge-interval:1m}") Duration purgeInterval,
+                              @Value("${session.revocation.persist-delay:1s}") Duration persistDelay) {
+        this.expectedTokens = expectedTokens;
+        this.snapshot = snapshot == null || snapshot.isBlank() ? null : Path.of(snapshot);
+        this.persistDelayMillis = persistDelay.toMillis();
+        this.filter = new TokenFilter(expectedTokens);
+        this.filterCapacity = expectedTokens;
+
+        if (this.snapshot != null && Files.exists(this.snapshot)) {
+            load(this.snapshot);
+        }
+
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-revocation-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = purgeInterval.toMillis();
+        purger.scheduleAtFixedRate(this::purge, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether a token has been revoked, individually or by its user's cutoff
+     */
+    public boolean isRevoked(TokenId token, String userId, Instant issuedAt) {
+        if (filter.mightContain(token) && revokedTokens.containsKey(token)) {
+            return true;
+        }
+        if (userCutoffs.isEmpty()) {
+            return false;
+        }
+        Cutoff cutoff = userCutoffs.get(userId);
+        return cutoff != null && issuedAt.isBefore(cutoff.validAfter());
+    }
+
+    /**
+     * Revoke a single token until it expires
+     */
+    public synchronized void revokeToken(TokenId token, Instant expiresAt) {
+        if (!Instant.now().isBefore(expiresAt)) {
+            return;
+        }
+        revokedTokens.put(token, expiresAt);
+        if (revokedTokens.size() > filterCapacity) {
+            rebuildFilter();
+        } else {
+            filter.add(token);
+        }
+        schedulePersist();
+    }
+
+    /**
+     * Revoke every token of a user issued before {@code validAfter}
+     *
+     * @param until when the last such token expires, after which the cutoff is dropped
+     */
+    public synchronized void revokeUser(String userId, Instant validAfter, Instant until) {
+        userCutoffs.merge(userId, new Cutoff(validAfter, until),
+                (current, added) -> current.validAfter().isAfter(added.validAfter()) ? current : added);
+        schedulePersist();
+    }
+
+    /**
+     * Drop entries whose tokens have all expired, and retry a snapshot write that failed
+     *
+     * Never throws, since an exception would cancel the periodic purge.
+     */
+    public void purge() {
+        try {
+            boolean changed;
+            synchronized (this) {
+                Instant now = Instant.now();
+                boolean tokensRemoved = revokedTokens.values().removeIf(expiresAt -> !now.isBefore(expiresAt));
+                boolean cutoffsRemoved = userCutoffs.values().removeIf(cutoff -> !now.isBefore(cutoff.until()));
+                if (tokensRemoved) {
+                    rebuildFilter();
+                }
+                changed = tokensRemoved || cutoffsRemoved;
+            }
+            if (changed || persistPending.get()) {
+                persist();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge session revocations", e);
+        }
+    }
+
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+
+    public int userCutoffCount() {
+        return userCutoffs.size();
+    }
+
+    /**
+     * Stop purging and write any change not yet in the snapshot
+     */
+    @Override
+    public void close() {
+        purger.shutdownNow();
+        if (persistPending.get()) {
+            persist();
+        }
+    }
+
+    /**
+     * Replace the filter with one holding exactly the current entries
+     *
+     * Readers keep using the old filter until the new one is published.
+     */
+    private void rebuildFilter() {
+        int capacity = Math.max(expectedTokens, revokedTokens.size() * 2);
+        TokenFilter rebuilt = new TokenFilter(capacity);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        filterCapacity = capacity;
+    }
+
+    /**
+     * Write the snapshot on the purge thread shortly, folding in any other change made until then
+     */
+    private void schedulePersist() {
+        if (snapshot == null || !persistPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            purger.schedule(this::persist, persistDelayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closing: close() writes whatever is pending
+        }
+    }
+
+    /**
+     * Write the current entries to the snapshot file (via a temporary file and an atomic rename)
+     *
+     * The entries are copied under the monitor and written outside it, so
+     * revocations are never held up by I/O. A failure is logged and left
+     * pending for the next purge.
+     */
+    private void persist() {
+        if (snapshot == null) {
+            return;
+        }
+
+        persistPending.set(false);
+        List<Map.Entry<TokenId, Instant>> tokens;
+        List<Map.Entry<String, Cutoff>> cutoffs;
+        synchronized (this) {
+            tokens = List.copyOf(revokedTokens.entrySet());
+            cutoffs = List.copyOf(userCutoffs.entrySet());
+        }
+
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(tokens.size());
+                for (Map.Entry<TokenId, Instant> entry : tokens) {
+                    out.writeLong(entry.getKey().high());
+                    out.writeLong(entry.getKey().low());
+                    out.writeLong(entry.getValue().toEpochMilli());
+                }
+                out.writeInt(cutoffs.size());
+                for (Map.Entry<String, Cutoff> entry : cutoffs) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().validAfter().toEpochMilli());
+                    out.writeLong(entry.getValue().until().toEpochMilli());
+                }
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            persistPending.set(true);
+            log.warn("Failed to write revocation snapshot {}; retrying at the next purge", snapshot, e);
+        }
+    }
+
+    /**
+     * Read a snapshot written by {@link #persist}, skipping entries that have expired since
+     */
+    private void load(Path path) {
+        Instant now = Instant.now();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("Not a revocation snapshot: " + path);
+            }
+
+            int tokens = in.readInt();
+            for (int i = 0; i < tokens; i++) {
+                TokenId token = new TokenId(in.readLong(), in.readLong());
+                Instant expiresAt = Instant.ofEpochMilli(in.readLong());
+                if (now.isBefore(expiresAt)) {
+                    revokedTokens.put(token, expiresAt);
+                }
+            }
+
+            int cutoffs = in.readInt();
+            for (int i = 0; i < cutoffs; i++) {
+                String userId = in.readUTF();
+                Cutoff cutoff = new Cutoff(Instant.ofEpochMilli(in.readLong()), Instant.ofEpochMilli(in.readLong()));
+                if (now.isBefore(cutoff.until())) {
+                    userCutoffs.put(userId, cutoff);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read revocation snapshot " + path, e);
+        }
+        rebuildFilter();
+    }
+
+    private record Cutoff(Instant validAfter, Instant until) {}
+}
@@ -0,0 +1,60 @@
+package com.vortexsoftware.demo.revocation;
+
+import com.vortexsoftware.demo.service.TokenId;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over token ids
+ *
+ * A negative answer is definite, so the common case (a token that was never
+ * revoked) is settled by a few plain array reads. Bits are set with atomic
+ * ORs, so readers never lock. There is no removal; the owner rebuilds the
+ * filter when entries expire.
+ */
+final class TokenFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    /**
+     * Size for {@code expectedEntries} at a false-positive rate of about 1%
+     */
+    TokenFilter(int expectedEntries) {
+        int entries = Math.max(expectedEntries, 64);
+        // m = -n ln(p) / ln(2)^2 and k = (m / n) ln(2), for p = 0.01
+        long requiredBits = (long) Math.ceil(entries * 9.585);
+        this.words = new AtomicLongArray((int) ((requiredBits + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = 7;
+    }
+
+    void add(TokenId id) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = bitFor(id, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    boolean mightContain(TokenId id) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = bitFor(id, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * i-th probe position from the two halves of the (already uniform) digest
+     */
+    private long bitFor(TokenId id, int i) {
+        return Math.floorMod(id.high() + i * id.low(), bits);
+    }
+}
@@ -0,0 +1,20 @@
+package com.vortexsoftware.demo.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Handler argument bound to the request's authenticated user
+ *
+ * Declare it as {@code Optional<DemoUser>} (empty when not authenticated) or
+ * as {@code DemoUser} (null when not authenticated). Resolved by
+ * {@link CurrentUserArgumentResolver} from the SecurityContext.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,29 @@
+package com.vortexsoftware.demo.security;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.Optional;
+
+/**
+ * Binds {@link CurrentUser} arguments to the user {@link SessionAuthenticationFilter} resolved
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && parameter.nestedIfOptional().getNestedParameterType() == DemoUser.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Optional<DemoUser> user = SessionAuthentication.currentUser();
+        return parameter.isOptional() ? user : user.orElse(null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.vortexsoftware.demo.security;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A request authenticated by its session cookie, as set by {@link SessionAuthenticationFilter}
+ *
+ * The principal is the DemoUser; the role is granted as {@code ROLE_<role>}.
+ */
+public class SessionAuthentication extends AbstractAuthenticationToken {
+
+    private final DemoUser user;
+    private final String sessionToken;
+
+    public SessionAuthentication(DemoUser user, String sessionToken) {
+        super(user.getRole() == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+        this.user = user;
+        this.sessionToken = sessionToken;
+        setAuthenticated(true);
+    }
+
+    /**
+     * The current request's session, if it is authenticated
+     */
+    public static Optional<SessionAuthentication> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication instanceof SessionAuthentication session ? Optional.of(session) : Optional.empty();
+    }
+
+    /**
+     * The current request's user, if it is authenticated
+     */
+    public static Optional<DemoUser> currentUser() {
+        return current().map(SessionAuthentication::getPrincipal);
+    }
+
+    /**
+     * The current request's user id, or null if it is not authenticated
+     */
+    public static String currentUserId() {
+        return SecurityContextHolder.getContext().getAuthentication() instanceof SessionAuthentication session
+                ? session.getName()
+                : null;
+    }
+
+    @Override
+    public DemoUser getPrincipal() {
+        return user;
+    }
+
+    /**
+     * Not kept: the session token is not a reusable credential for anything else
+     */
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    /**
+     * The raw session token the request was authenticated with
+     */
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    @Override
+    public String getName() {
+        return user.getId();
+    }
+}
@@ -0,0 +1,48 @@
+package com.vortexsoftware.demo.security;
+
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.service.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resolves the session cookie once per request into the SecurityContext
+ *
+ * Requests with a valid session get a {@link SessionAuthentication}; the
+ * rest are left to the anonymous filter. Handlers take the user as a
+ * {@link CurrentUser} argument and the Vortex hook reads it with
+ * {@link SessionAuthentication#currentUser()}, so nothing verifies the
+ * token a second time. The context is never saved: every request carries
+ * its own cookie. Not a bean, so it only runs inside the security chain.
+ */
+public class SessionAuthenticationFilter extends OncePerRequestFilter {
+
+    private final AuthService authService;
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+    public SessionAuthenticationFilter(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<String> token = authService.getSessionToken(request);
+        Optional<DemoUser> user = token.flatMap(authService::verifySessionJWT);
+        if (user.isPresent()) {
+            SecurityContext context = contextHolder.createEmptyContext();
+            context.setAuthentication(new SessionAuthentication(user.get(), token.get()));
+            contextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+}
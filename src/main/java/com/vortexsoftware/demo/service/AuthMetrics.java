@@ -0,0 +1,101 @@
+package com.vortexsoftware.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for logins and session tokens
+ *
+ * <ul>
+ *   <li>{@code auth.login}: login latency, tagged {@code outcome=success|failure}</li>
+ *   <li>{@code auth.session.mint}: session token creation, tagged with the token format</li>
+ *   <li>{@code auth.session.verify}: session token verification, tagged {@code cache=hit|shared|miss}</li>
+ *   <li>{@code auth.failures}: failed logins by reason</li>
+ *   <li>{@code auth.session.rejected}: rejected session tokens by reason</li>
+ *   <li>{@code auth.login.throttled}: login attempts turned away by the rate limit, by the limit hit</li>
+ * </ul>
+ */
+@Component
+public class AuthMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer loginSuccess;
+    private final Timer loginFailure;
+    private final Timer verifyHit;
+    private final Timer verifyShared;
+    private final Timer verifyMiss;
+
+    @Autowired
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.loginSuccess = latency("auth.login", "Login requests", "outcome", "success");
+        this.loginFailure = latency("auth.login", "Login requests", "outcome", "failure");
+        this.verifyHit = latency("auth.session.verify", "Session token verification", "cache", "hit");
+        this.verifyShared = latency("auth.session.verify", "Session token verification", "cache", "shared");
+        this.verifyMiss = latency("auth.session.verify", "Session token verification", "cache", "miss");
+    }
+
+    public Timer login(boolean success) {
+        return success ? loginSuccess : loginFailure;
+    }
+
+    public Timer sessionMint(String tokenFormat) {
+        return latency("auth.session.mint", "Session token creation", "format", tokenFormat);
+    }
+
+    /**
+     * Verification timer for a token found in the local session cache ({@code hit}),
+     * in the shared session table ({@code shared}), or in neither ({@code miss})
+     */
+    public Timer sessionVerify(String cache) {
+        return switch (cache) {
+            case "hit" -> verifyHit;
+            case "shared" -> verifyShared;
+            default -> verifyMiss;
+        };
+    }
+
+    /**
+     * Count a failed login ({@code missing_credentials}, {@code unknown_user} or {@code bad_password})
+     */
+    public void authFailure(String reason) {
+        Counter.builder("auth.failures")
+                .description("Failed login attempts")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Count a rejected session token ({@code invalid}, {@code expired}, {@code stale} or {@code unknown_user})
+     */
+    public void sessionRejected(String reason) {
+        Counter.builder("auth.session.rejected")
+                .description("Session tokens that failed verification")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Count a login attempt rejected by the rate limit for its client ({@code ip}) or its {@code email}
+     */
+    public void loginThrottled(String limit) {
+        Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the rate limit")
+                .tag("limit", limit)
+                .register(registry)
+                .increment();
+    }
+
+    private Timer latency(String name, String description, String tagKey, String tagValue) {
+        return Timer.builder(name)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -1,24 +1,40 @@
 package com.vortexsoftware.demo.service;
 
+import com.vortexsoftware.demo.audit.AuditLog;
+import com.vortexsoftware.demo.credential.CredentialEngine;
+import com.vortexsoftware.demo.diagnostics.Stage;
+import com.vortexsoftware.demo.diagnostics.StageEvent;
+import com.vortexsoftware.demo.diagnostics.StageTimer;
+import com.vortexsoftware.demo.directory.UserDirectory;
 import com.vortexsoftware.demo.model.DemoUser;
-import com.vortexsoftware.demo.model.UserGroup;
+import com.vortexsoftware.demo.model.PublicUser;
+import com.vortexsoftware.demo.revocation.SessionRevocations;
+import com.vortexsoftware.demo.service.SessionCache.VerifiedSession;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Authentication service for demo users
@@ -29,57 +45,108 @@ public class AuthService {
     private static final String JWT_SECRET = "demo-secret-key-for-session-management";
     private static final SecretKey KEY = Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8));
     private static final String SESSION_COOKIE_NAME = "session";
+    private static final Duration SESSION_LIFETIME = Duration.ofHours(24);
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(KEY).build();
+    private static final CompactSessionCodec COMPACT_CODEC = new CompactSessionCodec(KEY);
 
-    // Demo users with new simplified format (isAutojoinAdmin)
-    // Legacy fields (role, groups) are also included for backward compatibility demo
-    private static final List<DemoUser> DEMO_USERS = Arrays.asList(
-            new DemoUser(
-                    "user-1",
-                    "admin@example.com",
-                    hashPassword("password123"),
-                    true,  // isAutojoinAdmin
-                    "admin",  // legacy role
-                    Arrays.asList(  // legacy groups
-                            new UserGroup("team", "team-1", "Engineering"),
-                            new UserGroup("organization", "org-1", "Acme Corp")
-                    )
-            ),
-            new DemoUser(
-                    "user-2",
-                    "user@example.com",
-                    hashPassword("userpass"),
-                    false,  // isAutojoinAdmin
-                    "user",  // legacy role
-                    Arrays.asList(  // legacy groups
-                            new UserGroup("team", "team-1", "Engineering")
-                    )
-            )
-    );
+    private final UserDirectory userDirectory;
+    private final SessionCache sessionCache;
+    private final SharedSessionTable sharedSessions;
+    private final SessionRevocations revocations;
+    private final CredentialEngine credentialEngine;
+    private final AuthMetrics metrics;
+    private final AuditLog audit;
+    private final Timer sessionMintTimer;
+    private final boolean compactSessions;
+
+    @Autowired
+    public AuthService(UserDirectory userDirectory, SessionCache sessionCache, SharedSessionTable sharedSessions,
+                       SessionRevocations revocations, CredentialEngine credentialEngine, AuthMetrics metrics,
+                       AuditLog audit, @Value("${session.token-format:jwt}") String tokenFormat) {
+        this.userDirectory = userDirectory;
+        this.sessionCache = sessionCache;
+        this.sharedSessions = sharedSessions;
+        this.revocations = revocations;
+        this.credentialEngine = credentialEngine;
+        this.metrics = metrics;
+        this.audit = audit;
+        this.sessionMintTimer = metrics.sessionMint(tokenFormat);
+
+        switch (tokenFormat) {
+            case "jwt" -> this.compactSessions = false;
+            case "compact" -> this.compactSessions = true;
+            default -> throw new IllegalArgumentException("Unknown session.token-format: " + tokenFormat + " (expected jwt or compact)");
+        }
+    }
 
     /**
      * Authenticate user by email and password
      */
     public Optional<DemoUser> authenticateUser(String email, String password) {
+        long start = System.nanoTime();
+        Optional<DemoUser> user = checkCredentials(email, password);
+        metrics.login(user.isPresent()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        user.ifPresent(u -> audit.record(AuditLog.Type.LOGIN, u.getId(), u.getEmail(), null));
+        return user;
+    }
+
+    private Optional<DemoUser> checkCredentials(String email, String password) {
         if (email == null || password == null) {
+            loginFailed("missing_credentials", null, email);
             return Optional.empty();
         }
 
-        String hashedPassword = hashPassword(password);
+        Optional<DemoUser> user = userDirectory.findByEmail(email);
+        if (user.isEmpty()) {
+            credentialEngine.matchNothing(password);
+            loginFailed("unknown_user", null, email);
+            return Optional.empty();
+        }
+
+        Optional<DemoUser> authenticated = user.filter(u -> credentialEngine.matches(password, u.getCredential()));
+        if (authenticated.isEmpty()) {
+            loginFailed("bad_password", user.get().getId(), email);
+        }
+        return authenticated;
+    }
 
-        return DEMO_USERS.stream()
-                .filter(user -> email.equals(user.getEmail()))
-                .filter(user -> hashedPassword.equals(user.getPassword()))
-                .findFirst();
+    private void loginFailed(String reason, String userId, String email) {
+        metrics.authFailure(reason);
+        audit.record(AuditLog.Type.LOGIN_FAILED, userId, email, reason);
     }
 
     /**
      * Create session JWT for demo purposes
+     *
+     * With {@code session.token-format: compact} a {@link CompactSessionCodec}
+     * token is issued instead, carrying only the user id, the directory
+     * version and the expiry. Both formats are always accepted. Every token
+     * carries a random id, so sessions can be revoked individually.
+     *
+     * The new session is remembered as verified straight away (locally and
+     * in the shared session table), so its first request on any instance
+     * skips the signature check.
      */
     public String createSessionJWT(DemoUser user) {
-        Instant now = Instant.now();
-        Instant expiration = now.plus(24, ChronoUnit.HOURS);
+        return sessionMintTimer.record(() -> {
+            // Tokens carry whole seconds; keep the remembered session identical to a decoded one
+            Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            String token = mintSessionToken(user, issuedAt);
+            remember(TokenId.of(token), new VerifiedSession(user.getId(), compactSessions ? null : user.getEmail(),
+                    issuedAt, issuedAt.plus(SESSION_LIFETIME)));
+            return token;
+        });
+    }
+
+    private String mintSessionToken(DemoUser user, Instant now) {
+        Instant expiration = now.plus(SESSION_LIFETIME);
+
+        if (compactSessions) {
+            return COMPACT_CODEC.encode(user.getId(), userDirectory.version(), expiration);
+        }
 
         return Jwts.builder()
+                .id(Long.toHexString(ThreadLocalRandom.current().nextLong()))
                 .subject(user.getId())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole())
@@ -92,42 +159,191 @@ public class AuthService {
 
     /**
      * Verify and parse session JWT
+     *
+     * Tokens that verified before are served from the session cache until
+     * their own expiry, skipping the signature check and claim parse. With
+     * {@code session.shared.file} set, tokens verified by another instance on
+     * the host are found in the shared session table as well.
+     * Compact tokens minted against another directory version are rejected,
+     * since user ids may have been reassigned. Revoked tokens are rejected
+     * whether cached or not.
      */
     public Optional<DemoUser> verifySessionJWT(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        TokenId tokenId = TokenId.of(token);
+        Optional<VerifiedSession> cached;
+        Optional<VerifiedSession> shared;
+        Optional<VerifiedSession> session;
+        try (StageTimer timer = StageTimer.start(Stage.SESSION_TOKEN, new StageEvent.SessionToken())) {
+            cached = sessionCache.get(tokenId);
+            shared = cached.isPresent() ? Optional.empty() : sharedSession(tokenId);
+            session = cached.or(() -> shared).or(() -> verifyToken(token, tokenId))
+                    .filter(s -> !isRevoked(tokenId, s));
+        }
+        Optional<DemoUser> user;
+        try (StageTimer timer = StageTimer.start(Stage.USER_RESOLVE, new StageEvent.UserResolve())) {
+            user = session.flatMap(this::findUser);
+        }
+        metrics.sessionVerify(cached.isPresent() ? "hit" : shared.isPresent() ? "shared" : "miss")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return user;
+    }
+
+    /**
+     * A session another instance on this host has already verified, copied into the local cache
+     */
+    private Optional<VerifiedSession> sharedSession(TokenId tokenId) {
+        Optional<VerifiedSession> session = sharedSessions.get(tokenId, userDirectory.version());
+        session.ifPresent(s -> sessionCache.put(tokenId, s));
+        return session;
+    }
+
+    /**
+     * Remember a verified session locally and for the other instances on this host
+     */
+    private void remember(TokenId tokenId, VerifiedSession session) {
+        sessionCache.put(tokenId, session);
+        sharedSessions.put(tokenId, session, userDirectory.version());
+    }
+
+    private boolean isRevoked(TokenId tokenId, VerifiedSession session) {
+        if (revocations.isRevoked(tokenId, session.userId(), session.issuedAt())
+                || sharedSessions.isRevoked(tokenId, session.userId(), session.issuedAt())) {
+            sessionRejected("revoked", session.userId());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check the signature and expiry of a token not in the session cache, and cache it
+     */
+    private Optional<VerifiedSession> verifyToken(String token, TokenId tokenId) {
+        if (CompactSessionCodec.isCompact(token)) {
+            Optional<CompactSessionCodec.Session> decoded = COMPACT_CODEC.decode(token);
+            if (decoded.isEmpty()) {
+                sessionRejected("invalid", null);
+                return Optional.empty();
+            }
+
+            CompactSessionCodec.Session compact = decoded.get();
+            if (compact.isExpired()) {
+                sessionRejected("expired", compact.subject());
+                return Optional.empty();
+            }
+            if (compact.directoryVersion() != userDirectory.version()) {
+                sessionRejected("stale", compact.subject());
+                return Optional.empty();
+            }
+
+            // Compact tokens don't carry iat; every session has the same lifetime
+            VerifiedSession session = new VerifiedSession(compact.subject(), null,
+                    compact.expiresAt().minus(SESSION_LIFETIME), compact.expiresAt());
+            remember(tokenId, session);
+            return Optional.of(session);
+        }
+
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(KEY)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            String userId = claims.getSubject();
-            String email = claims.get("email", String.class);
-            String role = claims.get("role", String.class);
-
-            // Find the full user object
-            return DEMO_USERS.stream()
-                    .filter(user -> userId.equals(user.getId()) && email.equals(user.getEmail()))
-                    .findFirst();
+            Claims claims = PARSER.parseSignedClaims(token).getPayload();
+
+            Instant expiresAt = claims.getExpiration().toInstant();
+            VerifiedSession session = new VerifiedSession(
+                    claims.getSubject(),
+                    claims.get("email", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : expiresAt.minus(SESSION_LIFETIME),
+                    expiresAt
+            );
+            remember(tokenId, session);
+
+            return Optional.of(session);
 
+        } catch (ExpiredJwtException e) {
+            sessionRejected("expired", e.getClaims().getSubject());
+            return Optional.empty();
         } catch (Exception e) {
+            // Malformed, tampered with or signed with another key
+            metrics.sessionRejected("invalid");
+            audit.record(AuditLog.Type.SESSION_REJECTED, null, e.getClass().getSimpleName(), "invalid");
             return Optional.empty();
         }
     }
 
     /**
-     * Get current user from request session
+     * Find the full user object for verified session claims
+     *
+     * JWT sessions also carry the email, which must still match; compact
+     * sessions are bound to the directory version instead.
      */
-    public Optional<DemoUser> getCurrentUser(HttpServletRequest request) {
-        if (request.getCookies() == null) {
-            return Optional.empty();
+    private Optional<DemoUser> findUser(VerifiedSession session) {
+        Optional<DemoUser> user = userDirectory.findById(session.userId());
+        if (session.email() != null) {
+            String email = UserDirectory.normalizeEmail(session.email());
+            user = user.filter(u -> UserDirectory.normalizeEmail(u.getEmail()).equals(email));
+        }
+
+        if (user.isEmpty()) {
+            sessionRejected("unknown_user", session.userId());
+        }
+        return user;
+    }
+
+    private void sessionRejected(String reason, String userId) {
+        metrics.sessionRejected(reason);
+        audit.record(AuditLog.Type.SESSION_REJECTED, userId, null, reason);
+    }
+
+    /**
+     * Revoke a single session token (e.g. on logout) until it expires
+     *
+     * Tokens that don't verify are ignored, so the revocation list only ever
+     * holds real sessions.
+     */
+    public void revokeSession(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
         }
 
-        return Arrays.stream(request.getCookies())
-                .filter(cookie -> SESSION_COOKIE_NAME.equals(cookie.getName()))
-                .map(Cookie::getValue)
-                .findFirst()
-                .flatMap(this::verifySessionJWT);
+        TokenId tokenId = TokenId.of(token);
+        Optional<VerifiedSession> session = sessionCache.get(tokenId).or(() -> verifyToken(token, tokenId));
+        session.ifPresent(s -> {
+            revocations.revokeToken(tokenId, s.expiresAt());
+            sharedSessions.revokeToken(tokenId, s.expiresAt());
+            sessionCache.invalidate(tokenId);
+            audit.record(AuditLog.Type.LOGOUT, s.userId(), null, null);
+        });
+    }
+
+    /**
+     * Revoke every session of a user issued up to now (e.g. on compromise or a role change)
+     *
+     * Token issue times have one-second resolution, so the cutoff is rounded up
+     * to the next second: a session created in the same second is revoked too.
+     */
+    public void revokeAllSessions(String userId) {
+        Instant validAfter = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        revocations.revokeUser(userId, validAfter, validAfter.plus(SESSION_LIFETIME));
+        sharedSessions.revokeUser(userId, validAfter, validAfter.plus(SESSION_LIFETIME));
+        audit.record(AuditLog.Type.LOGOUT_ALL, userId, null, null);
+    }
+
+    /**
+     * Raw session token from the request's cookies
+     */
+    public Optional<String> getSessionToken(HttpServletRequest request) {
+        try (StageTimer timer = StageTimer.start(Stage.SESSION_COOKIE, new StageEvent.SessionCookie())) {
+            if (request.getCookies() == null) {
+                return Optional.empty();
+            }
+
+            return Arrays.stream(request.getCookies())
+                    .filter(cookie -> SESSION_COOKIE_NAME.equals(cookie.getName()))
+                    .map(Cookie::getValue)
+                    .findFirst();
+        }
     }
 
     /**
@@ -154,32 +370,55 @@ public class AuthService {
     }
 
     /**
-     * Get all demo users (without passwords)
+     * Name of the session cookie
      */
-    public List<DemoUser> getDemoUsers() {
-        return DEMO_USERS.stream()
-                .map(DemoUser::withoutPassword)
-                .toList();
+    public String getSessionCookieName() {
+        return SESSION_COOKIE_NAME;
     }
 
     /**
-     * Simple password hashing using SHA-256 (for demo purposes only)
+     * Session cookie for non-servlet responses (same attributes as {@link #setSessionCookie})
      */
-    private static String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to hash password", e);
-        }
+    public ResponseCookie sessionCookie(String jwt) {
+        return ResponseCookie.from(SESSION_COOKIE_NAME, jwt)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(SESSION_LIFETIME)
+                .secure(false) // Set to true in production with HTTPS
+                .build();
+    }
+
+    /**
+     * Expired session cookie for non-servlet responses (same attributes as {@link #clearSessionCookie})
+     */
+    public ResponseCookie clearedSessionCookie() {
+        return ResponseCookie.from(SESSION_COOKIE_NAME, "")
+                .httpOnly(true)
+                .path("/")
+                .maxAge(0)
+                .build();
+    }
+
+    /**
+     * Version of the user directory, changes whenever the users change
+     */
+    public long getDirectoryVersion() {
+        return userDirectory.version();
+    }
+
+    /**
+     * Number of users in the user directory
+     */
+    public int getDirectorySize() {
+        return userDirectory.size();
+    }
+
+    /**
+     * Public views of all demo users
+     */
+    public List<PublicUser> getDemoUsers() {
+        return userDirectory.findAll().stream()
+                .map(DemoUser::toPublicUser)
+                .toList();
     }
 }
\ No newline at end of file
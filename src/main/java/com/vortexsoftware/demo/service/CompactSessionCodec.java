@@ -0,0 +1,136 @@
+package com.vortexsoftware.demo.service;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compact signed session token format
+ *
+ * {@code c2.<payload>.<signature>}, both parts base64url without padding. The
+ * payload is binary rather than JSON and carries only what a request needs:
+ *
+ * <pre>
+ * version (1 byte) | directory version (8 bytes) | exp, epoch seconds (4 bytes) | nonce (8 bytes) | subject (UTF-8)
+ * </pre>
+ *
+ * The random nonce makes every token distinct, so two sessions of the same
+ * user created in the same second can be revoked independently. Version 1
+ * tokens ({@code c1.}) had no nonce; they are no longer compact tokens and
+ * fail verification like any other unknown token.
+ *
+ * The signature is HMAC-SHA256 over the encoded payload with the session key.
+ * Email, role and groups are not embedded; they are looked up from the user
+ * directory when needed.
+ */
+public class CompactSessionCodec {
+
+    // Follows VERSION, so a token of another version is never taken for this one
+    public static final String PREFIX = "c2.";
+
+    private static final byte VERSION = 2;
+    private static final int HEADER_LENGTH = 1 + 8 + 4 + 8;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> mac;
+
+    public CompactSessionCodec(SecretKey key) {
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Whether a token is in the compact format (rather than a JWT)
+     */
+    public static boolean isCompact(String token) {
+        return token.startsWith(PREFIX);
+    }
+
+    /**
+     * Encode and sign a session
+     */
+    public String encode(String subject, long directoryVersion, Instant expiresAt) {
+        byte[] subjectBytes = subject.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(HEADER_LENGTH + subjectBytes.length)
+                .put(VERSION)
+                .putLong(directoryVersion)
+                .putInt((int) expiresAt.getEpochSecond())
+                .putLong(ThreadLocalRandom.current().nextLong())
+                .put(subjectBytes)
+                .array();
+
+        String encodedPayload = ENCODER.encodeToString(payload);
+        byte[] signature = sign(encodedPayload);
+        return PREFIX + encodedPayload + "." + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * Verify the signature of a compact token and decode it
+     *
+     * Expiry is not checked here; see {@link Session#isExpired}.
+     */
+    public Optional<Session> decode(String token) {
+        if (!isCompact(token)) {
+            return Optional.empty();
+        }
+
+        int separator = token.indexOf('.', PREFIX.length());
+        if (separator < 0) {
+            return Optional.empty();
+        }
+
+        try {
+            String encodedPayload = token.substring(PREFIX.length(), separator);
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(encodedPayload), signature)) {
+                return Optional.empty();
+            }
+
+            ByteBuffer payload = ByteBuffer.wrap(DECODER.decode(encodedPayload));
+            if (payload.remaining() <= HEADER_LENGTH || payload.get() != VERSION) {
+                return Optional.empty();
+            }
+
+            long directoryVersion = payload.getLong();
+            Instant expiresAt = Instant.ofEpochSecond(Integer.toUnsignedLong(payload.getInt()));
+            payload.getLong(); // nonce
+
+            byte[] subject = Arrays.copyOfRange(payload.array(), payload.position(), payload.limit());
+            return Optional.of(new Session(new String(subject, StandardCharsets.UTF_8), directoryVersion, expiresAt));
+
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decoded compact session
+     */
+    public record Session(String subject, long directoryVersion, Instant expiresAt) {
+
+        public boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.vortexsoftware.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Bounded cache of already-verified session tokens
+ *
+ * Entries are keyed by {@link TokenId}, a digest of the raw token (the token
+ * itself is never retained), expire at the token's own {@code exp} claim and are evicted
+ * by size using Caffeine's W-TinyLFU policy. A repeat request for the same
+ * cookie costs one digest and one hash lookup instead of a full HMAC check and
+ * claim parse.
+ */
+@Component
+public class SessionCache {
+
+    private final Cache<TokenId, VerifiedSession> cache;
+
+    public SessionCache(@Value("${session.cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<TokenId, VerifiedSession>() {
+                    @Override
+                    public long expireAfterCreate(TokenId key, VerifiedSession session, long currentTime) {
+                        return session.nanosUntilExpiry();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenId key, VerifiedSession session, long currentTime, long currentDuration) {
+                        return session.nanosUntilExpiry();
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenId key, VerifiedSession session, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Look up a previously verified token
+     */
+    public Optional<VerifiedSession> get(TokenId token) {
+        VerifiedSession session = cache.getIfPresent(token);
+        if (session == null || session.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Remember a token whose signature and expiry have just been verified
+     */
+    public void put(TokenId token, VerifiedSession session) {
+        if (!session.isExpired()) {
+            cache.put(token, session);
+        }
+    }
+
+    /**
+     * Drop a single token, e.g. on logout
+     */
+    public void invalidate(TokenId token) {
+        cache.invalidate(token);
+    }
+
+    /**
+     * Approximate number of cached sessions
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Hit, miss and eviction counters for sizing the cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Claims retained for a verified session token (email is null for compact tokens)
+     */
+    public record VerifiedSession(String userId, String email, Instant issuedAt, Instant expiresAt) {
+
+        boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+
+        long nanosUntilExpiry() {
+            long millis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, millis) * 1_000_000L;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,431 @@
+package com.vortexsoftware.demo.service;
+
+import com.vortexsoftware.demo.service.SessionCache.VerifiedSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Off-heap session table shared by every instance on the host
+ *
+ * A fixed-size table of slots in a memory-mapped file (ideally on tmpfs,
+ * e.g. {@code /dev/shm}), enabled by {@code session.shared.file}. It holds
+ * verified sessions, so a token verified by one instance is a table hit for
+ * the others, and revocation markers (single tokens and per-user cutoffs), so
+ * a logout on one instance is honoured by all of them.
+ *
+ * Each key has {@value #PROBES} candidate slots. Every slot starts with a
+ * sequence word used as a seqlock: writers claim a slot by CAS-ing the even
+ * sequence to an odd claim value and publish by storing the next even value;
+ * readers check that the sequence did not change while they read the slot.
+ * Nothing blocks: a reader that races a writer sees a miss, and a session
+ * writer that loses a race skips the write, while a revocation marker is
+ * re-probed until it lands. Expired slots are reclaimed in
+ * place by later writes. A claim is never taken over, since a writer that was
+ * only paused could not be fenced off and would resume writing into a slot
+ * someone else had published: a claim older than {@value #STALE_CLAIM_MILLIS}
+ * ms (left behind by a crashed process) just leaves its slot unused until the
+ * file is recreated.
+ *
+ * The table is best-effort: a full probe window drops the write. Revocation
+ * markers are never evicted by sessions; a marker that still cannot be
+ * stored (a window of live markers) is logged and counted. Each instance's own
+ * {@link com.vortexsoftware.demo.revocation.SessionRevocations} stays
+ * authoritative for revocations made through it.
+ */
+@Component
+public class SharedSessionTable {
+
+    private static final int MAGIC = 0x53535431; // "SST1"
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 256;
+    private static final int PROBES = 8;
+    private static final long STALE_CLAIM_MILLIS = 1000;
+    private static final int MARKER_ATTEMPTS = 1000;
+
+    // Slot layout
+    private static final int SEQ = 0;
+    private static final int KEY_HIGH = 8;
+    private static final int KEY_LOW = 16;
+    private static final int EXPIRES_AT = 24;
+    private static final int ISSUED_AT = 32;
+    private static final int DIRECTORY_VERSION = 40;
+    private static final int KIND = 48;
+    private static final int USER_ID_LENGTH = 52;
+    private static final int EMAIL_LENGTH = 54;
+    private static final int DATA = 56;
+    private static final int DATA_CAPACITY = SLOT_SIZE - DATA;
+
+    // Slot kinds
+    private static final int EMPTY = 0;
+    private static final int SESSION = 1;
+    private static final int REVOKED_TOKEN = 2;
+    private static final int USER_CUTOFF = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(SharedSessionTable.class);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final MappedByteBuffer table;
+    private final int mask;
+    private final AtomicLong droppedMarkers = new AtomicLong();
+
+    /**
+     * Outcome of one attempt at a write
+     */
+    private enum Write {
+        /** Written, or deliberately not (a session for a revoked token) */
+        DONE,
+        /** Lost a race for a slot or found slots mid-write; worth re-probing */
+        CONTENDED,
+        /** Every slot in the window holds a live marker */
+        FULL
+    }
+
+    public SharedSessionTable(@Value("${session.shared.file:#{null}}") String file,
+                              @Value("${session.shared.slots:65536}") int slots) {
+        if (file == null || file.isBlank()) {
+            this.table = null;
+            this.mask = 0;
+            return;
+        }
+        if (slots < PROBES || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("session.shared.slots must be a power of two of at least " + PROBES);
+        }
+
+        try {
+            this.table = map(Path.of(file), slots);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map shared session table " + file, e);
+        }
+        this.mask = table.getInt(8) - 1;
+    }
+
+    /**
+     * A session verified by any instance against the same directory version
+     */
+    public Optional<VerifiedSession> get(TokenId token, long directoryVersion) {
+        if (table == null) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        int home = home(token);
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = slotOffset(home + probe);
+            long seq = (long) LONGS.getAcquire(table, slot + SEQ);
+            if ((seq & 1) != 0 || !holds(slot, token, now)) {
+                continue;
+            }
+
+            int kind = table.getInt(slot + KIND);
+            VerifiedSession session = kind == SESSION && table.getLong(slot + DIRECTORY_VERSION) == directoryVersion
+                    ? readSession(slot)
+                    : null;
+            if (!unchanged(slot, seq)) {
+                continue;
+            }
+            if (kind == REVOKED_TOKEN) {
+                return Optional.empty();
+            }
+            if (session != null) {
+                return Optional.of(session);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Share a just-verified session with the other instances
+     */
+    public void put(TokenId token, VerifiedSession session, long directoryVersion) {
+        if (table == null) {
+            return;
+        }
+
+        byte[] userId = session.userId().getBytes(StandardCharsets.UTF_8);
+        byte[] email = session.email() != null ? session.email().getBytes(StandardCharsets.UTF_8) : null;
+        if (userId.length + (email != null ? email.length : 0) > DATA_CAPACITY) {
+            return;
+        }
+        writeOnce(token, SESSION, session.expiresAt().toEpochMilli(), session.issuedAt().toEpochMilli(),
+                directoryVersion, userId, email);
+    }
+
+    /**
+     * Mark a token revoked on every instance until it expires
+     */
+    public void revokeToken(TokenId token, Instant expiresAt) {
+        if (table != null) {
+            writeMarker(token, REVOKED_TOKEN, expiresAt.toEpochMilli(), 0);
+        }
+    }
+
+    /**
+     * Reject a user's sessions issued before {@code validAfter} on every instance, until {@code until}
+     */
+    public void revokeUser(String userId, Instant validAfter, Instant until) {
+        if (table != null) {
+            writeMarker(userKey(userId), USER_CUTOFF, until.toEpochMilli(), validAfter.toEpochMilli());
+        }
+    }
+
+    /**
+     * Whether another instance (or this one) has revoked a token, individually or by its user's cutoff
+     */
+    public boolean isRevoked(TokenId token, String userId, Instant issuedAt) {
+        if (table == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (findMarker(token, REVOKED_TOKEN, now) != Long.MIN_VALUE) {
+            return true;
+        }
+        long validAfter = findMarker(userKey(userId), USER_CUTOFF, now);
+        return validAfter != Long.MIN_VALUE && issuedAt.toEpochMilli() < validAfter;
+    }
+
+    /**
+     * Revocation markers that could not be stored
+     */
+    public long droppedMarkerCount() {
+        return droppedMarkers.get();
+    }
+
+    /**
+     * Issue time stored with a live marker of a kind for a key, or {@code Long.MIN_VALUE} if there is none
+     */
+    private long findMarker(TokenId key, int kind, long now) {
+        int home = home(key);
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = slotOffset(home + probe);
+            long seq = (long) LONGS.getAcquire(table, slot + SEQ);
+            if ((seq & 1) != 0 || !holds(slot, key, now)) {
+                continue;
+            }
+            boolean match = table.getInt(slot + KIND) == kind;
+            long issuedAt = table.getLong(slot + ISSUED_AT);
+            if (match && unchanged(slot, seq)) {
+                return issuedAt;
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Write a revocation marker, re-probing until it lands
+     *
+     * A lost CAS or a slot mid-write means another writer got there first;
+     * probing again sees its result (possibly a session for the same key,
+     * which the marker then overwrites).
+     */
+    private void writeMarker(TokenId key, int kind, long expiresAt, long issuedAt) {
+        Write result = Write.CONTENDED;
+        for (int attempt = 0; attempt < MARKER_ATTEMPTS && result == Write.CONTENDED; attempt++) {
+            if (attempt > 0) {
+                Thread.onSpinWait();
+            }
+            result = writeOnce(key, kind, expiresAt, issuedAt, 0, new byte[0], null);
+        }
+        if (result != Write.DONE) {
+            droppedMarkers.incrementAndGet();
+            log.warn("Shared session table could not store a {} marker ({}); only this instance will honour it",
+                    kind == REVOKED_TOKEN ? "token revocation" : "user cutoff",
+                    result == Write.FULL ? "probe window full of live markers" : "contended");
+        }
+    }
+
+    /**
+     * Make one attempt to write an entry into the key's probe window
+     *
+     * Prefers the slot already holding the key, then an empty or expired
+     * slot, then (never for a live marker) the live session that
+     * expires soonest.
+     */
+    private Write writeOnce(TokenId key, int kind, long expiresAt, long issuedAt, long directoryVersion,
+                            byte[] userId, byte[] email) {
+        long now = System.currentTimeMillis();
+        int home = home(key);
+
+        int target = -1;
+        long targetSeq = 0;
+        int targetRank = Integer.MAX_VALUE;
+        long targetExpiry = Long.MAX_VALUE;
+        boolean sameKey = false;
+        boolean contended = false;
+
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = slotOffset(home + probe);
+            long seq = (long) LONGS.getAcquire(table, slot + SEQ);
+            if ((seq & 1) != 0) {
+                // A fresh claim is a write in progress; a stale one is abandoned for good
+                contended |= now - (seq >>> 1) <= STALE_CLAIM_MILLIS;
+                continue;
+            }
+
+            int slotKind = table.getInt(slot + KIND);
+            long slotExpiry = table.getLong(slot + EXPIRES_AT);
+            boolean slotHoldsKey = holds(slot, key, now);
+            if (!unchanged(slot, seq)) {
+                contended = true;
+                continue;
+            }
+
+            if (slotHoldsKey) {
+                if (slotKind == REVOKED_TOKEN && kind == SESSION) {
+                    return Write.DONE; // never resurrect a revoked token
+                }
+                target = slot;
+                targetSeq = seq;
+                sameKey = true;
+                break;
+            }
+
+            int rank;
+            if (slotKind == EMPTY || slotExpiry <= now) {
+                rank = 0;
+            } else if (slotKind == SESSION) {
+                rank = 1;
+            } else {
+                continue; // live markers stay
+            }
+            if (rank < targetRank || (rank == targetRank && slotExpiry < targetExpiry)) {
+                target = slot;
+                targetSeq = seq;
+                targetRank = rank;
+                targetExpiry = slotExpiry;
+            }
+        }
+        if (target < 0) {
+            return contended ? Write.CONTENDED : Write.FULL;
+        }
+
+        // Claim; a successful CAS also means the slot still holds what was read above
+        long claim = (now << 1) | 1;
+        if (!LONGS.compareAndSet(table, target + SEQ, targetSeq, claim)) {
+            return Write.CONTENDED;
+        }
+
+        if (sameKey && kind == USER_CUTOFF) {
+            // Cutoffs only move forward
+            issuedAt = Math.max(issuedAt, table.getLong(target + ISSUED_AT));
+            expiresAt = Math.max(expiresAt, table.getLong(target + EXPIRES_AT));
+        }
+
+        table.putLong(target + KEY_HIGH, key.high());
+        table.putLong(target + KEY_LOW, key.low());
+        table.putLong(target + EXPIRES_AT, expiresAt);
+        table.putLong(target + ISSUED_AT, issuedAt);
+        table.putLong(target + DIRECTORY_VERSION, directoryVersion);
+        table.putInt(target + KIND, kind);
+        table.putShort(target + USER_ID_LENGTH, (short) userId.length);
+        table.putShort(target + EMAIL_LENGTH, (short) (email != null ? email.length : -1));
+        table.put(target + DATA, userId);
+        if (email != null) {
+            table.put(target + DATA + userId.length, email);
+        }
+
+        // Publish: an even sequence no reader can have seen before. Only this writer
+        // can move the slot on from its claim, so a failure means the table was tampered with
+        if (!LONGS.compareAndSet(table, target + SEQ, claim, targetSeq + 2)) {
+            return Write.CONTENDED;
+        }
+        return Write.DONE;
+    }
+
+    /**
+     * Whether a slot holds a live entry for a key (to be confirmed with {@link #unchanged})
+     */
+    private boolean holds(int slot, TokenId key, long now) {
+        return table.getInt(slot + KIND) != EMPTY
+                && table.getLong(slot + KEY_HIGH) == key.high()
+                && table.getLong(slot + KEY_LOW) == key.low()
+                && table.getLong(slot + EXPIRES_AT) > now;
+    }
+
+    /**
+     * Whether a slot's sequence is still the one read before its fields
+     */
+    private boolean unchanged(int slot, long seq) {
+        VarHandle.acquireFence();
+        return (long) LONGS.getVolatile(table, slot + SEQ) == seq;
+    }
+
+    /**
+     * Decode a session slot; lengths are clamped since a racing write may have torn them
+     */
+    private VerifiedSession readSession(int slot) {
+        int userIdLength = Math.max(0, Math.min(table.getShort(slot + USER_ID_LENGTH), DATA_CAPACITY));
+        int emailLength = Math.min(table.getShort(slot + EMAIL_LENGTH), DATA_CAPACITY - userIdLength);
+        return new VerifiedSession(
+                string(slot + DATA, userIdLength),
+                emailLength < 0 ? null : string(slot + DATA + userIdLength, emailLength),
+                Instant.ofEpochMilli(table.getLong(slot + ISSUED_AT)),
+                Instant.ofEpochMilli(table.getLong(slot + EXPIRES_AT)));
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        table.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int home(TokenId key) {
+        return (int) key.high();
+    }
+
+    private int slotOffset(int index) {
+        return HEADER_SIZE + (index & mask) * SLOT_SIZE;
+    }
+
+    private static TokenId userKey(String userId) {
+        return TokenId.of("\0user\0" + userId);
+    }
+
+    /**
+     * Map the table file, creating and initializing it if needed
+     *
+     * An existing table keeps its own slot count; the file lock only guards
+     * initialization against instances starting at the same time.
+     */
+    private static MappedByteBuffer map(Path file, int slots) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+
+            if (channel.size() >= HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(12);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != SLOT_SIZE) {
+                    throw new IOException("Not a shared session table: " + file);
+                }
+                slots = header.getInt();
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+            }
+
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+            table.putInt(4, SLOT_SIZE);
+            table.putInt(8, slots);
+            table.putInt(0, MAGIC);
+            return table;
+        }
+    }
+}
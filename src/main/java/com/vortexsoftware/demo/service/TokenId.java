@@ -0,0 +1,28 @@
+package com.vortexsoftware.demo.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Identity of a session token: the first 128 bits of its SHA-256 digest
+ *
+ * Works the same for JWT and compact tokens, and lets caches and the
+ * revocation list refer to a token without retaining the token itself.
+ */
+public record TokenId(long high, long low) {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    public static TokenId of(String token) {
+        ByteBuffer hash = ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        return new TokenId(hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,124 @@
+package com.vortexsoftware.demo.throttle;
+
+import com.vortexsoftware.demo.directory.UserDirectory;
+import com.vortexsoftware.demo.service.AuthMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit for login attempts, per client IP and per email
+ *
+ * Checked before the password is looked at, so a credential-stuffing burst
+ * is turned away without any hashing. Every attempt takes a token from the
+ * client's bucket and then from the email's; a client already over its limit
+ * does not use up the email's tokens. Buckets that have filled up again are
+ * evicted every {@code auth.throttle.sweep-interval}.
+ */
+@Component
+public class LoginThrottle implements AutoCloseable {
+
+    // Longest valid email address; longer input is cut so it cannot bloat the table
+    private static final int MAX_EMAIL_LENGTH = 254;
+
+    private final boolean enabled;
+    private final TokenBucketTable byIp;
+    private final TokenBucketTable byEmail;
+    private final AuthMetrics metrics;
+    private final ScheduledExecutorService sweeper;
+
+    @Autowired
+    public LoginThrottle(@Value("${auth.throttle.enabled:true}") boolean enabled,
+                         @Value("${auth.throttle.ip.burst:20}") int ipBurst,
+                         @Value("${auth.throttle.ip.interval:3s}") Duration ipInterval,
+                         @Value("${auth.throttle.email.burst:5}") int emailBurst,
+                         @Value("${auth.throttle.email.interval:12s}") Duration emailInterval,
+                         @Value("${auth.throttle.maximum-size:100000}") int maximumSize,
+                         @Value("${auth.throttle.stripes:64}") int stripes,
+                         @Value("${auth.throttle.sweep-interval:1m}") Duration sweepInterval,
+                         AuthMetrics metrics) {
+        this.enabled = enabled;
+        this.byIp = new TokenBucketTable(ipBurst, ipInterval, maximumSize, stripes);
+        this.byEmail = new TokenBucketTable(emailBurst, emailInterval, maximumSize, stripes);
+        this.metrics = metrics;
+
+        if (!enabled) {
+            this.sweeper = null;
+            return;
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-throttle-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = sweepInterval.toMillis();
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take a login attempt for a client and email
+     *
+     * @param clientIp the client's address, or null if unknown
+     * @return how long to wait before retrying if the attempt is throttled, else empty
+     */
+    public Optional<Duration> tryAcquire(String clientIp, String email) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            long wait = byIp.tryAcquire(clientIp, now);
+            if (wait > 0) {
+                metrics.loginThrottled("ip");
+                return Optional.of(Duration.ofNanos(wait));
+            }
+        }
+        if (email != null) {
+            long wait = byEmail.tryAcquire(emailKey(email), now);
+            if (wait > 0) {
+                metrics.loginThrottled("email");
+                return Optional.of(Duration.ofNanos(wait));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Client IPs and emails with a bucket that has not filled up yet
+     */
+    public long trackedKeys() {
+        return byIp.size() + byEmail.size();
+    }
+
+    /**
+     * Whole seconds for a {@code Retry-After} header, rounded up
+     */
+    public static long retryAfterSeconds(Duration wait) {
+        return Math.max((wait.toMillis() + 999) / 1000, 1);
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        byIp.evictIdle(now);
+        byEmail.evictIdle(now);
+    }
+
+    private static String emailKey(String email) {
+        String key = UserDirectory.normalizeEmail(email);
+        return key.length() > MAX_EMAIL_LENGTH ? key.substring(0, MAX_EMAIL_LENGTH) : key;
+    }
+}
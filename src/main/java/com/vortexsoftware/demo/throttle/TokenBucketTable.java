@@ -0,0 +1,120 @@
+package com.vortexsoftware.demo.throttle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by key, in a fixed number of stripes with a bounded size
+ *
+ * Each bucket is a single {@code AtomicLong} holding the time at which it
+ * will be full again (the GCRA form of a token bucket): taking a token is one
+ * CAS, and a bucket whose time has passed is full, so dropping it changes
+ * nothing. {@link #evictIdle} does just that. A stripe that is at its share of
+ * {@code maximumSize} makes room for a new key by dropping the bucket that
+ * will be full soonest, which forgives the least: keys sprayed once each are
+ * the first to go, while an email that is being hammered keeps its bucket.
+ * Concurrent inserts may take a stripe a few keys over its share.
+ */
+final class TokenBucketTable {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int stripeCapacity;
+    private final Stripe[] stripes;
+
+    /**
+     * @param burst tokens a full bucket holds
+     * @param interval time to earn back one token
+     */
+    TokenBucketTable(int burst, Duration interval, int maximumSize, int stripes) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        int stripeCount = Integer.highestOneBit(Math.max(stripes, 1));
+        this.intervalNanos = interval.toNanos();
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.stripeCapacity = Math.max(maximumSize / stripeCount, 1);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take a token from a key's bucket
+     *
+     * @return 0 if a token was taken, else the nanoseconds until one will be available
+     */
+    long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = stripeFor(key).bucket(key, nowNanos, stripeCapacity);
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, nowNanos);
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop the buckets that are full again
+     */
+    void evictIdle(long nowNanos) {
+        for (Stripe stripe : stripes) {
+            stripe.buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+        }
+    }
+
+    /**
+     * Keys currently tracked
+     */
+    long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        AtomicLong bucket(String key, long nowNanos, int capacity) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= capacity) {
+                evictSoonestFull();
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        private void evictSoonestFull() {
+            Map.Entry<String, AtomicLong> soonest = null;
+            long soonestFullAt = 0;
+            for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                long fullAt = entry.getValue().get();
+                if (soonest == null || fullAt - soonestFullAt < 0) {
+                    soonest = entry;
+                    soonestFullAt = fullAt;
+                }
+            }
+            if (soonest != null) {
+                buckets.remove(soonest.getKey(), soonest.getValue());
+            }
+        }
+    }
+}
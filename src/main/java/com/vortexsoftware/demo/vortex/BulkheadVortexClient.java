@@ -0,0 +1,66 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+
+import java.util.List;
+
+/**
+ * VortexClient decorator that runs every Vortex API call on the outbound executor
+ *
+ * The calling thread still waits for the result; the executor only bounds how
+ * many such calls are in flight and how long each may take. JWT generation is
+ * local signing work and stays on the calling thread.
+ */
+public class BulkheadVortexClient extends ForwardingVortexClient {
+
+    private final OutboundExecutor executor;
+
+    public BulkheadVortexClient(String apiKey, VortexClient delegate, OutboundExecutor executor) {
+        super(apiKey, delegate);
+        this.executor = executor;
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByTarget(String targetType, String targetValue) throws VortexException {
+        return executor.execute("getInvitationsByTarget", () -> delegate().getInvitationsByTarget(targetType, targetValue));
+    }
+
+    @Override
+    public InvitationResult getInvitation(String invitationId) throws VortexException {
+        return executor.execute("getInvitation", () -> delegate().getInvitation(invitationId));
+    }
+
+    @Override
+    public void revokeInvitation(String invitationId) throws VortexException {
+        executor.execute("revokeInvitation", () -> {
+            delegate().revokeInvitation(invitationId);
+            return null;
+        });
+    }
+
+    @Override
+    public InvitationResult acceptInvitations(List<String> invitationIds, InvitationTarget target) throws VortexException {
+        return executor.execute("acceptInvitations", () -> delegate().acceptInvitations(invitationIds, target));
+    }
+
+    @Override
+    public void deleteInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        executor.execute("deleteInvitationsByGroup", () -> {
+            delegate().deleteInvitationsByGroup(groupType, groupId);
+            return null;
+        });
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        return executor.execute("getInvitationsByGroup", () -> delegate().getInvitationsByGroup(groupType, groupId));
+    }
+
+    @Override
+    public InvitationResult reinvite(String invitationId) throws VortexException {
+        return executor.execute("reinvite", () -> delegate().reinvite(invitationId));
+    }
+}
@@ -0,0 +1,77 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+import com.vortexsoftware.sdk.types.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VortexClient that forwards every call to a delegate client
+ *
+ * The SDK's VortexController takes a concrete VortexClient, so decorators
+ * (caching, metrics, ...) extend this class and override only the calls
+ * they care about. Decorators can be stacked by passing one as the
+ * delegate of the next.
+ */
+public class ForwardingVortexClient extends VortexClient {
+
+    private final VortexClient delegate;
+
+    public ForwardingVortexClient(String apiKey, VortexClient delegate) {
+        super(apiKey);
+        this.delegate = delegate;
+    }
+
+    protected VortexClient delegate() {
+        return delegate;
+    }
+
+    @Override
+    public String generateJwt(User user) {
+        return delegate.generateJwt(user);
+    }
+
+    @Override
+    public String generateJwt(User user, Map<String, Object> extra) {
+        return delegate.generateJwt(user, extra);
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByTarget(String targetType, String targetValue) throws VortexException {
+        return delegate.getInvitationsByTarget(targetType, targetValue);
+    }
+
+    @Override
+    public InvitationResult getInvitation(String invitationId) throws VortexException {
+        return delegate.getInvitation(invitationId);
+    }
+
+    @Override
+    public void revokeInvitation(String invitationId) throws VortexException {
+        delegate.revokeInvitation(invitationId);
+    }
+
+    @Override
+    public InvitationResult acceptInvitations(List<String> invitationIds, InvitationTarget target) throws VortexException {
+        return delegate.acceptInvitations(invitationIds, target);
+    }
+
+    @Override
+    public void deleteInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        delegate.deleteInvitationsByGroup(groupType, groupId);
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        return delegate.getInvitationsByGroup(groupType, groupId);
+    }
+
+    @Override
+    public InvitationResult reinvite(String invitationId) throws VortexException {
+        return delegate.reinvite(invitationId);
+    }
+}
@@ -0,0 +1,216 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vortexsoftware.demo.authorization.VortexAuthorization;
+import com.vortexsoftware.demo.authorization.VortexAuthorization.GroupRef;
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Many invitation lookups and revocations in one request
+ *
+ * Identical keys are collapsed, then the distinct calls fan out to the
+ * VortexClient with at most {@code parallelism} of a batch's calls in flight.
+ * Revocations run before the lookups, so lookups in the same batch see them.
+ * Every item gets its own result or error; one failed call never fails the
+ * batch. Items not started before the batch deadline fail with 504.
+ */
+public class InvitationBatch implements AutoCloseable {
+
+    private final VortexClient vortexClient;
+    private final VortexAuthorization authorization;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxItems;
+    private final Duration deadline;
+
+    public InvitationBatch(VortexClient vortexClient, VortexAuthorization authorization,
+                           int parallelism, int maxItems, Duration deadline) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.vortexClient = vortexClient;
+        this.authorization = authorization;
+        this.executor = OutboundExecutor.newExecutor("vortex-batch-", parallelism);
+        this.parallelism = parallelism;
+        this.maxItems = maxItems;
+        this.deadline = deadline;
+    }
+
+    public int maxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Run a batch for a user
+     *
+     * @throws IllegalArgumentException if the request is malformed or has more than {@link #maxItems()} items
+     */
+    public Response execute(Request request, String userId) {
+        List<TargetKey> targets = distinct(request.targets());
+        List<GroupKey> groups = distinct(request.groups());
+        List<String> revocations = distinct(request.revoke());
+
+        if (targets.stream().anyMatch(t -> t == null || t.type() == null || t.value() == null)
+                || groups.stream().anyMatch(g -> g == null || g.type() == null || g.id() == null)
+                || revocations.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("targets need type and value, groups need type and id");
+        }
+        if (targets.size() + groups.size() + revocations.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " distinct items per batch");
+        }
+
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        List<RevokeResult> revoked = fanOut(revocations, deadlineNanos, id -> {
+            if (!authorization.authorize("REVOKE_INVITATION", userId, null)) {
+                return new RevokeResult(id, false, ItemError.FORBIDDEN);
+            }
+            return call(() -> {
+                vortexClient.revokeInvitation(id);
+                return new RevokeResult(id, true, null);
+            }, error -> new RevokeResult(id, false, error));
+        }, id -> new RevokeResult(id, false, ItemError.DEADLINE));
+
+        // Lookups run together, sharing the batch's parallelism
+        List<Object> lookups = new ArrayList<>(targets.size() + groups.size());
+        lookups.addAll(targets);
+        lookups.addAll(groups);
+        List<Object> looked = fanOut(lookups, deadlineNanos, key -> lookup(key, userId),
+                key -> key instanceof TargetKey target
+                        ? new TargetResult(target, null, ItemError.DEADLINE)
+                        : new GroupResult((GroupKey) key, null, ItemError.DEADLINE));
+
+        List<TargetResult> targetResults = new ArrayList<>(targets.size());
+        List<GroupResult> groupResults = new ArrayList<>(groups.size());
+        for (Object result : looked) {
+            if (result instanceof TargetResult targetResult) {
+                targetResults.add(targetResult);
+            } else {
+                groupResults.add((GroupResult) result);
+            }
+        }
+        return new Response(targetResults, groupResults, revoked);
+    }
+
+    private Object lookup(Object key, String userId) {
+        if (key instanceof TargetKey target) {
+            if (!authorization.authorize("GET_INVITATIONS", userId, null)) {
+                return new TargetResult(target, null, ItemError.FORBIDDEN);
+            }
+            return call(() -> new TargetResult(target,
+                            vortexClient.getInvitationsByTarget(target.type(), target.value()), null),
+                    error -> new TargetResult(target, null, error));
+        }
+
+        GroupKey group = (GroupKey) key;
+        if (!authorization.authorize("GET_GROUP_INVITATIONS", userId, new GroupRef(group.type(), group.id()))) {
+            return new GroupResult(group, null, ItemError.FORBIDDEN);
+        }
+        return call(() -> new GroupResult(group, vortexClient.getInvitationsByGroup(group.type(), group.id()), null),
+                error -> new GroupResult(group, null, error));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Apply a call to every item with at most {@code parallelism} running at once,
+     * keeping the results in item order
+     */
+    @SuppressWarnings("unchecked")
+    private <T, R> List<R> fanOut(List<T> items, long deadlineNanos, Function<T, R> call, Function<T, R> expired) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Object[] results = new Object[items.size()];
+
+        // Each worker claims the next unclaimed item until none are left; the
+        // calling thread is one of the workers, so a batch always makes progress
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < items.size()) {
+                T item = items.get(i);
+                results[i] = System.nanoTime() - deadlineNanos < 0 ? call.apply(item) : expired.apply(item);
+            }
+        };
+
+        int workers = Math.min(parallelism, items.size());
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers - 1];
+        for (int w = 0; w < running.length; w++) {
+            running[w] = CompletableFuture.runAsync(worker, executor);
+        }
+        worker.run();
+        CompletableFuture.allOf(running).join();
+        return (List<R>) List.of(results);
+    }
+
+    private static <R> R call(VortexCall<R> call, Function<ItemError, R> failed) {
+        try {
+            return call.call();
+        } catch (OutboundRejectedException e) {
+            return failed.apply(e.isTimeout() ? ItemError.TIMEOUT : ItemError.BUSY);
+        } catch (VortexException e) {
+            return failed.apply(new ItemError(500, String.valueOf(e.getMessage())));
+        } catch (RuntimeException e) {
+            return failed.apply(new ItemError(500, "Vortex call failed"));
+        }
+    }
+
+    private static <T> List<T> distinct(List<T> items) {
+        return items == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(items));
+    }
+
+    @FunctionalInterface
+    private interface VortexCall<R> {
+        R call() throws VortexException;
+    }
+
+    /**
+     * Body of {@code POST /api/vortex/batch}
+     */
+    public record Request(List<TargetKey> targets, List<GroupKey> groups, List<String> revoke) {}
+
+    public record TargetKey(String type, String value) {}
+
+    public record GroupKey(String type, String id) {}
+
+    /**
+     * Per-item results, in the order the distinct items were first requested
+     */
+    public record Response(List<TargetResult> targets, List<GroupResult> groups, List<RevokeResult> revoked) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record TargetResult(TargetKey target, List<InvitationResult> invitations, ItemError error) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GroupResult(GroupKey group, List<InvitationResult> invitations, ItemError error) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RevokeResult(String invitationId, boolean success, ItemError error) {}
+
+    /**
+     * Why one item failed, with the status the single-item route would have returned
+     */
+    public record ItemError(int status, String error) {
+
+        static final ItemError FORBIDDEN = new ItemError(403, "Forbidden");
+        static final ItemError BUSY = new ItemError(503, "Vortex API busy, try again");
+        static final ItemError TIMEOUT = new ItemError(504, "Vortex API timed out");
+        static final ItemError DEADLINE = new ItemError(504, "Batch deadline exceeded");
+    }
+}
@@ -0,0 +1,228 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VortexClient decorator with a read-through cache for invitation lookups
+ *
+ * Lookups by target and by group are cached; concurrent identical misses are
+ * coalesced into one upstream call. Every write that passes through (revoke,
+ * delete by group, accept, reinvite) invalidates exactly the cached lookups
+ * that contain the affected invitations, using a reverse index from
+ * invitation id to cache key.
+ *
+ * Each loaded lookup carries a version, and its reverse index entries are
+ * stamped with it, so a late removal notification for an old lookup never
+ * unindexes a newer one. A lookup that was loading while a write went through
+ * may hold data from before the write: it is returned to the callers that
+ * waited for it but not kept.
+ *
+ * With stale-while-revalidate enabled, an entry older than {@code ttl} is
+ * still served (for up to {@code maxStale}) while it is reloaded in the
+ * background.
+ */
+public class InvitationCachingVortexClient extends ForwardingVortexClient {
+
+    private final LoadingCache<InvitationKey, Lookup> cache;
+    private final Map<String, Map<InvitationKey, Long>> keysByInvitation = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public InvitationCachingVortexClient(String apiKey, VortexClient delegate, Duration ttl,
+                                         boolean staleWhileRevalidate, Duration maxStale, long maximumSize) {
+        super(apiKey, delegate);
+
+        Caffeine<InvitationKey, Lookup> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .removalListener(this::onRemoval)
+                .recordStats();
+
+        if (staleWhileRevalidate) {
+            builder.refreshAfterWrite(ttl).expireAfterWrite(ttl.plus(maxStale));
+        } else {
+            builder.expireAfterWrite(ttl);
+        }
+
+        this.cache = builder.build(this::load);
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByTarget(String targetType, String targetValue) throws VortexException {
+        return read(InvitationKey.target(targetType, targetValue));
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        return read(InvitationKey.group(groupType, groupId));
+    }
+
+    @Override
+    public void revokeInvitation(String invitationId) throws VortexException {
+        invalidateInvitation(invitationId);
+        super.revokeInvitation(invitationId);
+        invalidateInvitation(invitationId);
+    }
+
+    @Override
+    public InvitationResult reinvite(String invitationId) throws VortexException {
+        invalidateInvitation(invitationId);
+        InvitationResult result = super.reinvite(invitationId);
+        invalidateInvitation(invitationId);
+        return result;
+    }
+
+    @Override
+    public InvitationResult acceptInvitations(List<String> invitationIds, InvitationTarget target) throws VortexException {
+        invalidateAccepted(invitationIds, target);
+        InvitationResult result = super.acceptInvitations(invitationIds, target);
+        invalidateAccepted(invitationIds, target);
+        return result;
+    }
+
+    @Override
+    public void deleteInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        invalidateGroup(groupType, groupId);
+        super.deleteInvitationsByGroup(groupType, groupId);
+        invalidateGroup(groupType, groupId);
+    }
+
+    /**
+     * Approximate number of cached lookups
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Hit, miss and eviction counters for sizing the cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private List<InvitationResult> read(InvitationKey key) throws VortexException {
+        try {
+            Lookup lookup = cache.get(key);
+            if (lookup == null) {
+                return null;
+            }
+            if (!lookup.current()) {
+                cache.asMap().remove(key, lookup);
+            }
+            return lookup.results();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof VortexException vortexException) {
+                throw vortexException;
+            }
+            throw e;
+        }
+    }
+
+    private Lookup load(InvitationKey key) throws VortexException {
+        long writesBefore = writes.get();
+        List<InvitationResult> results = key.group()
+                ? delegate().getInvitationsByGroup(key.type(), key.value())
+                : delegate().getInvitationsByTarget(key.type(), key.value());
+        if (results == null) {
+            return null;
+        }
+
+        long version = versions.incrementAndGet();
+        for (InvitationResult result : results) {
+            if (result.getId() != null) {
+                keysByInvitation.computeIfAbsent(result.getId(), id -> new ConcurrentHashMap<>()).put(key, version);
+            }
+        }
+        // Indexed before this check, so a write from here on finds the lookup through the index
+        return new Lookup(results, version, writes.get() == writesBefore);
+    }
+
+    /**
+     * Unindex a removed lookup, leaving entries a newer lookup for the same key has stamped since
+     *
+     * Runs asynchronously, possibly after the key has been loaded again.
+     */
+    private void onRemoval(InvitationKey key, Lookup lookup, RemovalCause cause) {
+        if (key == null || lookup == null) {
+            return;
+        }
+
+        for (InvitationResult result : lookup.results()) {
+            if (result.getId() != null) {
+                keysByInvitation.computeIfPresent(result.getId(), (id, keys) -> {
+                    keys.remove(key, lookup.version());
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+    }
+
+    private void invalidateInvitation(String invitationId) {
+        writes.incrementAndGet();
+        Map<InvitationKey, Long> keys = keysByInvitation.get(invitationId);
+        if (keys != null) {
+            cache.invalidateAll(List.copyOf(keys.keySet()));
+        }
+    }
+
+    private void invalidateAccepted(List<String> invitationIds, InvitationTarget target) {
+        writes.incrementAndGet();
+        for (String invitationId : invitationIds) {
+            invalidateInvitation(invitationId);
+        }
+        if (target != null) {
+            cache.invalidate(InvitationKey.target(target.getType(), target.getValue()));
+        }
+    }
+
+    private void invalidateGroup(String groupType, String groupId) {
+        writes.incrementAndGet();
+        InvitationKey key = InvitationKey.group(groupType, groupId);
+        Lookup lookup = cache.getIfPresent(key);
+        if (lookup == null) {
+            // We don't know which invitations belonged to the group, so any
+            // cached target lookup might hold one of them
+            cache.asMap().keySet().removeIf(cached -> !cached.group());
+        } else {
+            for (InvitationResult result : lookup.results()) {
+                if (result.getId() != null) {
+                    invalidateInvitation(result.getId());
+                }
+            }
+        }
+        cache.invalidate(key);
+    }
+
+    /**
+     * A loaded lookup
+     *
+     * @param version stamped on the lookup's reverse index entries
+     * @param current false if a write went through while it was loading
+     */
+    private record Lookup(List<InvitationResult> results, long version, boolean current) {}
+
+    private record InvitationKey(boolean group, String type, String value) {
+
+        static InvitationKey target(String targetType, String targetValue) {
+            return new InvitationKey(false, targetType, targetValue);
+        }
+
+        static InvitationKey group(String groupType, String groupId) {
+            return new InvitationKey(true, groupType, groupId);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.types.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VortexClient decorator that reuses still-valid Vortex JWTs
+ *
+ * A minted JWT is reused for the same user (and extra claims) until
+ * {@code refreshMargin} before its {@code exp} claim. Concurrent requests for
+ * the same user are coalesced into a single mint by the cache.
+ */
+public class JwtCachingVortexClient extends ForwardingVortexClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Cache<JwtKey, CachedJwt> cache;
+    private final Duration refreshMargin;
+    private final Duration fallbackTtl;
+
+    public JwtCachingVortexClient(String apiKey, VortexClient delegate, Duration refreshMargin,
+                                  Duration fallbackTtl, long maximumSize) {
+        super(apiKey, delegate);
+        this.refreshMargin = refreshMargin;
+        this.fallbackTtl = fallbackTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<JwtKey, CachedJwt>() {
+                    @Override
+                    public long expireAfterCreate(JwtKey key, CachedJwt jwt, long currentTime) {
+                        return jwt.nanosUntilRefresh();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(JwtKey key, CachedJwt jwt, long currentTime, long currentDuration) {
+                        return jwt.nanosUntilRefresh();
+                    }
+
+                    @Override
+                    public long expireAfterRead(JwtKey key, CachedJwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String generateJwt(User user) {
+        return cache.get(JwtKey.of(user, null), key -> mint(delegate().generateJwt(user))).jwt();
+    }
+
+    @Override
+    public String generateJwt(User user, Map<String, Object> extra) {
+        return cache.get(JwtKey.of(user, extra), key -> mint(delegate().generateJwt(user, extra))).jwt();
+    }
+
+    /**
+     * Approximate number of cached JWTs
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Hit, miss and eviction counters for sizing the cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private CachedJwt mint(String jwt) {
+        Instant expiresAt = expiryOf(jwt);
+        if (expiresAt == null) {
+            expiresAt = Instant.now().plus(fallbackTtl);
+        }
+        return new CachedJwt(jwt, expiresAt.minus(refreshMargin));
+    }
+
+    /**
+     * Read the exp claim of a JWT without verifying it (we just minted it)
+     */
+    private static Instant expiryOf(String jwt) {
+        try {
+            String[] parts = jwt.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            JsonNode payload = MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = payload.get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private record JwtKey(String userId, String email, List<String> adminScopes, Map<String, Object> extra) {
+
+        static JwtKey of(User user, Map<String, Object> extra) {
+            return new JwtKey(
+                    user.getId(),
+                    user.getEmail(),
+                    user.getAdminScopes() == null ? null : new ArrayList<>(user.getAdminScopes()),
+                    extra == null ? null : new HashMap<>(extra)
+            );
+        }
+    }
+
+    private record CachedJwt(String jwt, Instant reuseUntil) {
+
+        long nanosUntilRefresh() {
+            long millis = reuseUntil.toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, millis) * 1_000_000L;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.vortexsoftware.demo.audit.AuditLog;
+import com.vortexsoftware.demo.diagnostics.Stage;
+import com.vortexsoftware.demo.diagnostics.StageEvent;
+import com.vortexsoftware.demo.diagnostics.StageTimer;
+import com.vortexsoftware.demo.security.SessionAuthentication;
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+
+/**
+ * VortexClient decorator that times and audits every Vortex API call
+ *
+ * Records {@code vortex.upstream} per operation, tagged with the outcome:
+ * {@code success}, {@code error} (the Vortex API failed the call),
+ * {@code rejected} (bulkhead full) or {@code timeout} (deadline exceeded).
+ * It sits outside the bulkhead and inside the caches, so cache hits are not
+ * counted as upstream calls. JWT generation is local and is not timed here.
+ * Each call is also a {@code vortex_upstream} request stage, and its outcome
+ * is recorded in the {@link AuditLog} as a {@code vortex_call} event (with the
+ * user when the call runs on the request's thread).
+ */
+public class MeteredVortexClient extends ForwardingVortexClient {
+
+    private final MeterRegistry registry;
+    private final AuditLog audit;
+
+    public MeteredVortexClient(String apiKey, VortexClient delegate, MeterRegistry registry, AuditLog audit) {
+        super(apiKey, delegate);
+        this.registry = registry;
+        this.audit = audit;
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByTarget(String targetType, String targetValue) throws VortexException {
+        return timed("getInvitationsByTarget", () -> delegate().getInvitationsByTarget(targetType, targetValue));
+    }
+
+    @Override
+    public InvitationResult getInvitation(String invitationId) throws VortexException {
+        return timed("getInvitation", () -> delegate().getInvitation(invitationId));
+    }
+
+    @Override
+    public void revokeInvitation(String invitationId) throws VortexException {
+        timed("revokeInvitation", () -> {
+            delegate().revokeInvitation(invitationId);
+            return null;
+        });
+    }
+
+    @Override
+    public InvitationResult acceptInvitations(List<String> invitationIds, InvitationTarget target) throws VortexException {
+        return timed("acceptInvitations", () -> delegate().acceptInvitations(invitationIds, target));
+    }
+
+    @Override
+    public void deleteInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        timed("deleteInvitationsByGroup", () -> {
+            delegate().deleteInvitationsByGroup(groupType, groupId);
+            return null;
+        }, groupType, groupId);
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        return timed("getInvitationsByGroup", () -> delegate().getInvitationsByGroup(groupType, groupId),
+                groupType, groupId);
+    }
+
+    @Override
+    public InvitationResult reinvite(String invitationId) throws VortexException {
+        return timed("reinvite", () -> delegate().reinvite(invitationId));
+    }
+
+    private <T> T timed(String operation, OutboundExecutor.Call<T> call) throws VortexException {
+        return timed(operation, call, null, null);
+    }
+
+    private <T> T timed(String operation, OutboundExecutor.Call<T> call, String groupType, String groupId)
+            throws VortexException {
+        Timer.Sample sample = Timer.start(registry);
+        String status = "error";
+        try (StageTimer timer = StageTimer.start(Stage.VORTEX_UPSTREAM, new StageEvent.VortexUpstream(), operation)) {
+            T result = call.call();
+            status = "success";
+            return result;
+        } catch (OutboundRejectedException e) {
+            status = e.isTimeout() ? "timeout" : "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("vortex.upstream")
+                    .description("Vortex API calls")
+                    .tag("operation", operation)
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            audit.record(AuditLog.Type.VORTEX_CALL, SessionAuthentication.currentUserId(), operation,
+                    groupType, groupId, status);
+        }
+    }
+}
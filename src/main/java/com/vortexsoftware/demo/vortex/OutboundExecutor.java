@@ -0,0 +1,139 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.vortexsoftware.sdk.VortexException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated execution layer for outbound Vortex API calls
+ *
+ * Calls run on virtual threads when the runtime supports them (Java 21+) and
+ * on a bounded pool of daemon platform threads otherwise. A semaphore
+ * bulkhead caps the number of calls in flight: when it is full, new calls
+ * fail fast instead of queueing, so a slow Vortex API can tie up at most
+ * {@code maxConcurrent} request threads. Each call also gets a deadline after
+ * which it is cancelled and the caller released.
+ */
+public class OutboundExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration deadline;
+    private final Duration acquireTimeout;
+
+    public OutboundExecutor(int maxConcurrent, Duration deadline, Duration acquireTimeout) {
+        this.executor = newExecutor("vortex-outbound-", maxConcurrent);
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.deadline = deadline;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * A single outbound call
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws VortexException;
+    }
+
+    /**
+     * Run a call under the bulkhead and deadline, on the outbound executor
+     */
+    public <T> T execute(String operation, Call<T> call) throws VortexException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new OutboundRejectedException(operation + ": too many concurrent Vortex calls", false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutboundRejectedException(operation + ": interrupted", false);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return call.call();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        try {
+            return future.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new OutboundRejectedException(operation + ": Vortex call exceeded " + deadline.toMillis() + "ms", true);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OutboundRejectedException(operation + ": interrupted", false);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof VortexException vortexException) {
+                throw vortexException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(operation + " failed", cause);
+        }
+    }
+
+    /**
+     * Calls currently in flight
+     */
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Virtual-thread-per-task executor on Java 21+, otherwise at most {@code maxThreads} daemon threads
+     */
+    static ExecutorService newExecutor(String threadNamePrefix, int maxThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Pre-21 runtime: platform threads, never more than the caller allows
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory);
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.vortexsoftware.demo.vortex;
+
+/**
+ * Thrown when an outbound Vortex call is rejected by the bulkhead or exceeds its deadline
+ */
+public class OutboundRejectedException extends RuntimeException {
+
+    private final boolean timeout;
+
+    public OutboundRejectedException(String message, boolean timeout) {
+        super(message);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Whether the call was cancelled at its deadline (rather than rejected up front)
+     */
+    public boolean isTimeout() {
+        return timeout;
+    }
+}
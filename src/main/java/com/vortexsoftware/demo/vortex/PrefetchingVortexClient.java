@@ -0,0 +1,76 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.VortexException;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.InvitationTarget;
+import com.vortexsoftware.sdk.types.User;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * VortexClient decorator that serves the current session's prefetched data
+ *
+ * The outermost decorator: a JWT or group lookup found in the session's
+ * {@link VortexPrefetch} buffer is returned without calling further down.
+ * Calls made without a current session (including the prefetches themselves)
+ * pass straight through. Invitation writes drop the buffered lists.
+ */
+public class PrefetchingVortexClient extends ForwardingVortexClient {
+
+    private final VortexPrefetch prefetch;
+    private final Supplier<String> sessionToken;
+
+    public PrefetchingVortexClient(String apiKey, VortexClient delegate, VortexPrefetch prefetch,
+                                   Supplier<String> sessionToken) {
+        super(apiKey, delegate);
+        this.prefetch = prefetch;
+        this.sessionToken = sessionToken;
+    }
+
+    @Override
+    public String generateJwt(User user) {
+        String token = sessionToken.get();
+        if (token == null) {
+            return super.generateJwt(user);
+        }
+        return prefetch.takeJwt(token, user).orElseGet(() -> super.generateJwt(user));
+    }
+
+    @Override
+    public List<InvitationResult> getInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        String token = sessionToken.get();
+        if (token != null) {
+            List<InvitationResult> prefetched = prefetch.takeGroupInvitations(token, groupType, groupId).orElse(null);
+            if (prefetched != null) {
+                return prefetched;
+            }
+        }
+        return super.getInvitationsByGroup(groupType, groupId);
+    }
+
+    @Override
+    public void revokeInvitation(String invitationId) throws VortexException {
+        prefetch.invalidateInvitations();
+        super.revokeInvitation(invitationId);
+    }
+
+    @Override
+    public InvitationResult reinvite(String invitationId) throws VortexException {
+        prefetch.invalidateInvitations();
+        return super.reinvite(invitationId);
+    }
+
+    @Override
+    public InvitationResult acceptInvitations(List<String> invitationIds, InvitationTarget target) throws VortexException {
+        prefetch.invalidateInvitations();
+        return super.acceptInvitations(invitationIds, target);
+    }
+
+    @Override
+    public void deleteInvitationsByGroup(String groupType, String groupId) throws VortexException {
+        prefetch.invalidateInvitations();
+        super.deleteInvitationsByGroup(groupType, groupId);
+    }
+}
@@ -0,0 +1,306 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import com.vortexsoftware.demo.service.TokenId;
+import com.vortexsoftware.sdk.VortexClient;
+import com.vortexsoftware.sdk.types.InvitationResult;
+import com.vortexsoftware.sdk.types.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Speculative fetch of a user's Vortex data right after login
+ *
+ * Front ends call {@code /api/vortex/jwt} and the by-group invitation lookups
+ * for the user's groups straight after logging in. When a session is created,
+ * its Vortex JWT and group invitation lists are fetched in the background into
+ * a short-lived per-session buffer, and the first follow-up call for each is
+ * served from it, waiting up to {@code await} for a fetch still in flight
+ * rather than calling the Vortex API a second time.
+ *
+ * Everything is bounded: at most {@code parallelism} sessions are prefetched at
+ * once (logins beyond that are not prefetched), at most {@code maxGroups}
+ * groups per session and {@code maxSessions} buffered sessions, each kept for
+ * {@code ttl}. Starting a prefetch only hands it to the executor, so it never
+ * delays the login response. Logging out cancels the session's prefetch and
+ * drops its buffer; invitation writes drop all buffered invitation lists.
+ */
+public class VortexPrefetch implements AutoCloseable {
+
+    private final Supplier<VortexClient> vortexClient;
+    private final boolean enabled;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxGroups;
+    private final Duration await;
+    private final Cache<TokenId, SessionPrefetch> sessions;
+
+    private final Counter started;
+    private final Counter skipped;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VortexPrefetch(Supplier<VortexClient> vortexClient, boolean enabled, int parallelism, int maxGroups,
+                          int maxSessions, Duration ttl, Duration await, MeterRegistry registry) {
+        this.vortexClient = vortexClient;
+        this.enabled = enabled;
+        this.executor = enabled ? OutboundExecutor.newExecutor("vortex-prefetch-", parallelism) : null;
+        this.permits = new Semaphore(parallelism);
+        this.maxGroups = maxGroups;
+        this.await = await;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterWrite(ttl)
+                .removalListener((TokenId key, SessionPrefetch prefetch, RemovalCause cause) -> {
+                    if (prefetch != null) {
+                        prefetch.cancel();
+                    }
+                })
+                .build();
+
+        this.started = registry.counter("vortex.prefetch", "outcome", "started");
+        this.skipped = registry.counter("vortex.prefetch", "outcome", "skipped");
+        this.hits = registry.counter("vortex.prefetch.reads", "result", "hit");
+        this.misses = registry.counter("vortex.prefetch.reads", "result", "miss");
+        Gauge.builder("vortex.prefetch.sessions", sessions, Cache::estimatedSize)
+                .description("Sessions with a prefetch buffer")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start prefetching for a new session; returns immediately
+     */
+    public void start(String sessionToken, DemoUser user) {
+        if (!enabled || sessionToken == null) {
+            return;
+        }
+        if (!permits.tryAcquire()) {
+            skipped.increment();
+            return;
+        }
+
+        SessionPrefetch prefetch = new SessionPrefetch(user, groupsOf(user));
+        try {
+            prefetch.task = executor.submit(() -> {
+                try {
+                    prefetch.run(vortexClient.get());
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            skipped.increment();
+            return;
+        }
+        sessions.put(TokenId.of(sessionToken), prefetch);
+        started.increment();
+    }
+
+    /**
+     * Cancel a session's prefetch and drop its buffer
+     */
+    public void cancel(String sessionToken) {
+        if (enabled && sessionToken != null) {
+            sessions.invalidate(TokenId.of(sessionToken));
+        }
+    }
+
+    /**
+     * Cancel the prefetches of all of a user's sessions
+     */
+    public void cancelUser(String userId) {
+        if (enabled) {
+            sessions.asMap().values().removeIf(prefetch -> prefetch.user.getId().equals(userId));
+        }
+    }
+
+    /**
+     * Drop every buffered invitation list, after an invitation write
+     */
+    public void invalidateInvitations() {
+        if (enabled) {
+            sessions.asMap().values().forEach(SessionPrefetch::dropGroups);
+        }
+    }
+
+    /**
+     * The session's prefetched JWT, if it was minted for this exact user
+     */
+    public Optional<String> takeJwt(String sessionToken, User user) {
+        SessionPrefetch prefetch = find(sessionToken);
+        return read(prefetch == null ? null : prefetch.takeJwt(user));
+    }
+
+    /**
+     * The session's prefetched invitation list for a group
+     */
+    public Optional<List<InvitationResult>> takeGroupInvitations(String sessionToken, String groupType, String groupId) {
+        SessionPrefetch prefetch = find(sessionToken);
+        return read(prefetch == null ? null : prefetch.takeGroup(new GroupKey(groupType, groupId)));
+    }
+
+    @Override
+    public void close() {
+        sessions.invalidateAll();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private SessionPrefetch find(String sessionToken) {
+        return enabled && sessionToken != null ? sessions.getIfPresent(TokenId.of(sessionToken)) : null;
+    }
+
+    private <T> Optional<T> read(CompletableFuture<T> item) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (item == null) {
+            return miss();
+        }
+        try {
+            T value = item.get(await.toMillis(), TimeUnit.MILLISECONDS);
+            if (value == null) {
+                return miss();
+            }
+            hits.increment();
+            return Optional.of(value);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return miss();
+        } catch (Exception e) {
+            // Failed, cancelled or still running: the caller makes the call itself
+            return miss();
+        }
+    }
+
+    private <T> Optional<T> miss() {
+        misses.increment();
+        return Optional.empty();
+    }
+
+    private List<GroupKey> groupsOf(DemoUser user) {
+        List<GroupKey> groups = new ArrayList<>();
+        if (user.getGroups() != null) {
+            for (UserGroup group : user.getGroups()) {
+                if (groups.size() == maxGroups) {
+                    break;
+                }
+                groups.add(new GroupKey(group.getType(), group.getId()));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * The Vortex user a session's JWT is minted for, as the SDK's JWT route builds it
+     */
+    private static User vortexUser(DemoUser user) {
+        List<String> adminScopes = new ArrayList<>();
+        if (user.isAutojoinAdmin()) {
+            adminScopes.add("autojoin");
+        }
+        return new User(user.getId(), user.getEmail(), adminScopes);
+    }
+
+    private record GroupKey(String type, String id) {}
+
+    /**
+     * One session's buffer: a future per prefetched item, completed by a single task
+     *
+     * Each item can be read once; {@code unread} tracks what is left.
+     */
+    private static final class SessionPrefetch {
+
+        private final DemoUser user;
+        private final CompletableFuture<String> jwt = new CompletableFuture<>();
+        private final Map<GroupKey, CompletableFuture<List<InvitationResult>>> groups;
+        private final AtomicBoolean jwtUnread = new AtomicBoolean(true);
+        private final Map<GroupKey, CompletableFuture<List<InvitationResult>>> unreadGroups;
+        private volatile Future<?> task;
+
+        SessionPrefetch(DemoUser user, List<GroupKey> groupKeys) {
+            this.user = user;
+            Map<GroupKey, CompletableFuture<List<InvitationResult>>> items = new LinkedHashMap<>();
+            for (GroupKey key : groupKeys) {
+                items.put(key, new CompletableFuture<>());
+            }
+            this.groups = items;
+            this.unreadGroups = new ConcurrentHashMap<>(items);
+        }
+
+        void run(VortexClient client) {
+            complete(jwt, () -> client.generateJwt(vortexUser(user)));
+            for (Map.Entry<GroupKey, CompletableFuture<List<InvitationResult>>> item : groups.entrySet()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                GroupKey key = item.getKey();
+                complete(item.getValue(), () -> client.getInvitationsByGroup(key.type(), key.id()));
+            }
+        }
+
+        CompletableFuture<String> takeJwt(User other) {
+            User expected = vortexUser(user);
+            boolean sameUser = Objects.equals(expected.getId(), other.getId())
+                    && Objects.equals(expected.getEmail(), other.getEmail())
+                    && Objects.equals(expected.getAdminScopes(), other.getAdminScopes());
+            return sameUser && jwtUnread.getAndSet(false) ? jwt : null;
+        }
+
+        CompletableFuture<List<InvitationResult>> takeGroup(GroupKey key) {
+            return unreadGroups.remove(key);
+        }
+
+        void dropGroups() {
+            unreadGroups.clear();
+        }
+
+        void cancel() {
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+            jwt.cancel(false);
+            groups.values().forEach(item -> item.cancel(false));
+        }
+
+        private static <T> void complete(CompletableFuture<T> item, OutboundExecutor.Call<T> call) {
+            if (item.isDone()) {
+                return;
+            }
+            try {
+                item.complete(call.call());
+            } catch (Exception e) {
+                item.completeExceptionally(e);
+            }
+        }
+    }
+}
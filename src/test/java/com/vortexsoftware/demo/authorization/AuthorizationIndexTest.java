@@ -0,0 +1,32 @@
+package com.vortexsoftware.demo.authorization;
+
+import com.vortexsoftware.demo.directory.InMemoryUserDirectory;
+import com.vortexsoftware.demo.model.DemoUser;
+import com.vortexsoftware.demo.model.UserGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationIndexTest {
+
+    @Test
+    void groupsWhoseTypeAndIdJoinToTheSameStringStayDistinct() {
+        AuthorizationIndex index = new AuthorizationIndex(new InMemoryUserDirectory(List.of(
+                user("user-1", new UserGroup("team", "a:b", "A")),
+                user("user-2", new UserGroup("team:a", "b", "B")))));
+
+        assertTrue(index.isMember("user-1", "team", "a:b"));
+        assertFalse(index.isMember("user-1", "team:a", "b"));
+        assertTrue(index.isMember("user-2", "team:a", "b"));
+        assertFalse(index.isMember("user-2", "team", "a:b"));
+        assertEquals(List.of("user-1"), index.members("team", "a:b", 0, 10).userIds());
+    }
+
+    private static DemoUser user(String id, UserGroup... groups) {
+        return new DemoUser(id, id + "@example.com", "", false, "user", List.of(groups));
+    }
+}
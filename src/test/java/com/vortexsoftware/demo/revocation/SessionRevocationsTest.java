@@ -0,0 +1,87 @@
+package com.vortexsoftware.demo.revocation;
+
+import com.vortexsoftware.demo.service.TokenId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRevocationsTest {
+
+    private static final int TOKENS = 500;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshotRoundTripsAndRebuildsTheFilter() {
+        Path snapshot = dir.resolve("revocations");
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(Duration.ofHours(1));
+
+        // Far more tokens than the filter is sized for, so it is rebuilt on the way in and on load
+        try (SessionRevocations revocations = revocations(snapshot)) {
+            for (int i = 0; i < TOKENS; i++) {
+                revocations.revokeToken(TokenId.of("revoked-" + i), expiresAt);
+            }
+            revocations.revokeUser("user-1", now, expiresAt);
+        }
+        assertTrue(Files.exists(snapshot));
+
+        try (SessionRevocations reloaded = revocations(snapshot)) {
+            assertEquals(TOKENS, reloaded.revokedTokenCount());
+            assertEquals(1, reloaded.userCutoffCount());
+            for (int i = 0; i < TOKENS; i++) {
+                assertTrue(reloaded.isRevoked(TokenId.of("revoked-" + i), "user-2", now), "revoked-" + i);
+                assertFalse(reloaded.isRevoked(TokenId.of("live-" + i), "user-2", now), "live-" + i);
+            }
+            assertTrue(reloaded.isRevoked(TokenId.of("live-0"), "user-1", now.minusSeconds(1)));
+            assertFalse(reloaded.isRevoked(TokenId.of("live-0"), "user-1", now.plusSeconds(1)));
+        }
+    }
+
+    @Test
+    void purgeDropsExpiredTokensAndKeepsTheRest() throws Exception {
+        Path snapshot = dir.resolve("revocations");
+        Instant now = Instant.now();
+        try (SessionRevocations revocations = revocations(snapshot)) {
+            revocations.revokeToken(TokenId.of("expiring"), now.plusMillis(50));
+            revocations.revokeToken(TokenId.of("kept"), now.plus(Duration.ofHours(1)));
+            Thread.sleep(100);
+
+            revocations.purge();
+            assertEquals(1, revocations.revokedTokenCount());
+            assertTrue(revocations.isRevoked(TokenId.of("kept"), "user-1", now));
+        }
+
+        try (SessionRevocations reloaded = revocations(snapshot)) {
+            assertEquals(1, reloaded.revokedTokenCount());
+            assertTrue(reloaded.isRevoked(TokenId.of("kept"), "user-1", now));
+        }
+    }
+
+    @Test
+    void failedSnapshotWriteDoesNotFailTheRevocation() {
+        Path unwritable = dir.resolve("missing").resolve("revocations");
+        TokenId token = TokenId.of("revoked");
+        try (SessionRevocations revocations = revocations(unwritable)) {
+            assertDoesNotThrow(() -> revocations.revokeToken(token, Instant.now().plus(Duration.ofHours(1))));
+            assertDoesNotThrow(() -> revocations.revokeUser("user-1", Instant.now(), Instant.now().plus(Duration.ofHours(1))));
+            assertDoesNotThrow(revocations::purge);
+            assertTrue(revocations.isRevoked(token, "user-2", Instant.now()));
+        }
+        assertFalse(Files.exists(unwritable));
+    }
+
+    private static SessionRevocations revocations(Path snapshot) {
+        return new SessionRevocations(snapshot.toString(), 10, Duration.ofMinutes(1), Duration.ofMillis(10));
+    }
+}
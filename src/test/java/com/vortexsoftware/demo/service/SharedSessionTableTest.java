@@ -0,0 +1,121 @@
+package com.vortexsoftware.demo.service;
+
+import com.vortexsoftware.demo.service.SessionCache.VerifiedSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedSessionTableTest {
+
+    private static final long DIRECTORY_VERSION = 1;
+    private static final int ROUNDS = 500;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void revocationLandsWhileAnotherWriterReputsTheSession() throws Exception {
+        SharedSessionTable table = new SharedSessionTable(dir.resolve("sessions").toString(), 4096);
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        AtomicReference<TokenId> current = new AtomicReference<>();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        // Keep re-putting whichever session is current, as concurrent requests verifying it would
+        Thread[] writers = new Thread[2];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new Thread(() -> {
+                while (!stop.get()) {
+                    TokenId token = current.get();
+                    if (token != null) {
+                        table.put(token, session(expiresAt), DIRECTORY_VERSION);
+                    }
+                }
+            });
+            writers[i].start();
+        }
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                TokenId token = TokenId.of("token-" + round);
+                current.set(token);
+                while (table.get(token, DIRECTORY_VERSION).isEmpty()) {
+                    Thread.yield();
+                }
+
+                table.revokeToken(token, expiresAt);
+                assertTrue(table.isRevoked(token, "user-1", Instant.now()), "round " + round);
+            }
+
+            // Later puts must not resurrect any of them
+            Thread.sleep(20);
+            for (int round = 0; round < ROUNDS; round++) {
+                assertTrue(table.isRevoked(TokenId.of("token-" + round), "user-1", Instant.now()), "round " + round);
+            }
+        } finally {
+            stop.set(true);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+        assertEquals(0, table.droppedMarkerCount());
+    }
+
+    @Test
+    void markerIsCountedWhenTheWindowHoldsOnlyLiveMarkers() {
+        // Eight slots: the whole table is one probe window
+        SharedSessionTable table = new SharedSessionTable(dir.resolve("sessions").toString(), 8);
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        for (int i = 0; i < 8; i++) {
+            table.revokeToken(TokenId.of("token-" + i), expiresAt);
+        }
+        assertEquals(0, table.droppedMarkerCount());
+
+        TokenId overflow = TokenId.of("token-8");
+        table.revokeToken(overflow, expiresAt);
+        assertEquals(1, table.droppedMarkerCount());
+        assertFalse(table.isRevoked(overflow, "user-1", Instant.now()));
+    }
+
+    @Test
+    void abandonedClaimsAreNeverTakenOver() throws Exception {
+        Path file = dir.resolve("sessions");
+        SharedSessionTable table = new SharedSessionTable(file.toString(), 8);
+
+        // Leave every slot claimed two seconds ago, as a paused or crashed writer would
+        long claim = ((System.currentTimeMillis() - 2000) << 1) | 1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            for (int slot = 0; slot < 8; slot++) {
+                buffer.putLong(64 + slot * 256, claim);
+            }
+            buffer.force();
+
+            TokenId token = TokenId.of("token");
+            Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+            table.put(token, session(expiresAt), DIRECTORY_VERSION);
+            table.revokeToken(token, expiresAt);
+
+            assertEquals(1, table.droppedMarkerCount());
+            for (int slot = 0; slot < 8; slot++) {
+                assertEquals(claim, buffer.getLong(64 + slot * 256), "slot " + slot);
+            }
+        }
+    }
+
+    private static VerifiedSession session(Instant expiresAt) {
+        return new VerifiedSession("user-1", "user@example.com", Instant.now().minusSeconds(1), expiresAt);
+    }
+}
@@ -0,0 +1,96 @@
+package com.vortexsoftware.demo.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+    // An arbitrary nanoTime origin, negative so the arithmetic has to survive the sign change
+    private static final long T0 = -5 * SECOND;
+
+    @Test
+    void fullBucketAllowsABurstThenOneTokenPerInterval() {
+        TokenBucketTable table = new TokenBucketTable(3, Duration.ofSeconds(1), 100, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, table.tryAcquire("key", T0), "token " + i);
+        }
+        assertEquals(SECOND, table.tryAcquire("key", T0));
+        assertEquals(SECOND / 2, table.tryAcquire("key", T0 + SECOND / 2));
+
+        assertEquals(0, table.tryAcquire("key", T0 + SECOND));
+        assertEquals(SECOND, table.tryAcquire("key", T0 + SECOND));
+    }
+
+    @Test
+    void rejectedAttemptsTakeNoToken() {
+        TokenBucketTable table = new TokenBucketTable(1, Duration.ofSeconds(1), 100, 1);
+
+        assertEquals(0, table.tryAcquire("key", T0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(SECOND, table.tryAcquire("key", T0));
+        }
+        assertEquals(0, table.tryAcquire("key", T0 + SECOND));
+    }
+
+    @Test
+    void idleBucketRefillsToTheBurstAndNoFurther() {
+        TokenBucketTable table = new TokenBucketTable(3, Duration.ofSeconds(1), 100, 1);
+        for (int i = 0; i < 3; i++) {
+            table.tryAcquire("key", T0);
+        }
+
+        long later = T0 + 100 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, table.tryAcquire("key", later), "token " + i);
+        }
+        assertEquals(SECOND, table.tryAcquire("key", later));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketTable table = new TokenBucketTable(1, Duration.ofSeconds(1), 100, 4);
+
+        assertEquals(0, table.tryAcquire("a", T0));
+        assertTrue(table.tryAcquire("a", T0) > 0);
+        assertEquals(0, table.tryAcquire("b", T0));
+    }
+
+    @Test
+    void evictIdleDropsOnlyFullBuckets() {
+        TokenBucketTable table = new TokenBucketTable(2, Duration.ofSeconds(1), 100, 1);
+        table.tryAcquire("once", T0);
+        table.tryAcquire("twice", T0);
+        table.tryAcquire("twice", T0);
+
+        table.evictIdle(T0 + SECOND);
+        assertEquals(1, table.size());
+        assertEquals(0, table.tryAcquire("twice", T0 + SECOND));
+        assertTrue(table.tryAcquire("twice", T0 + SECOND) > 0);
+    }
+
+    @Test
+    void keysSprayedAtAFullTableDoNotShareOrFreeAHammeredBucket() {
+        TokenBucketTable table = new TokenBucketTable(5, Duration.ofSeconds(12), 16, 1);
+        for (int i = 0; i < 5; i++) {
+            table.tryAcquire("victim@example.com", T0);
+        }
+        assertTrue(table.tryAcquire("victim@example.com", T0) > 0);
+
+        // Each new key still gets its own full bucket, and the table stays bounded
+        for (int i = 0; i < 10_000; i++) {
+            long now = T0 + i;
+            assertEquals(0, table.tryAcquire("spray-" + i + "@example.com", now), "key " + i);
+            assertTrue(table.size() <= 16);
+        }
+
+        // The most indebted bucket is the last to go
+        assertTrue(table.tryAcquire("victim@example.com", T0 + 10_000) > 0);
+        assertEquals(0, table.tryAcquire("legitimate@example.com", T0 + 10_000));
+    }
+}
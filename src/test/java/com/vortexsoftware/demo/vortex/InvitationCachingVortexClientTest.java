@@ -0,0 +1,127 @@
+package com.vortexsoftware.demo.vortex;
+
+import com.vortexsoftware.sdk.types.InvitationResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvitationCachingVortexClientTest {
+
+    @Test
+    void lateRemovalNotificationKeepsTheReloadedLookupIndexed() throws Exception {
+        FakeVortex upstream = new FakeVortex("inv-1");
+        InvitationCachingVortexClient client = client(upstream);
+        assertEquals(List.of("inv-1"), ids(client.getInvitationsByGroup("team", "t1")));
+
+        // Hold back Caffeine's asynchronous removal notifications until the key has been reloaded
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < ForkJoinPool.commonPool().getParallelism(); i++) {
+            ForkJoinPool.commonPool().execute(() -> await(release));
+        }
+        try {
+            client.reinvite("inv-1");
+            assertEquals(List.of("inv-1"), ids(client.getInvitationsByGroup("team", "t1")));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS));
+
+        client.revokeInvitation("inv-1");
+        assertEquals(List.of(), ids(client.getInvitationsByGroup("team", "t1")));
+    }
+
+    @Test
+    void lookupLoadingDuringAWriteIsNotKept() throws Exception {
+        FakeVortex upstream = new FakeVortex("inv-1");
+        InvitationCachingVortexClient client = client(upstream);
+
+        // The lookup reads the invitations, then stalls until the revoke has gone through
+        CountDownLatch stall = new CountDownLatch(1);
+        upstream.stall = stall;
+        CompletableFuture<List<InvitationResult>> inFlight = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.getInvitationsByGroup("team", "t1");
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(upstream.stalled.await(5, TimeUnit.SECONDS));
+        client.revokeInvitation("inv-1");
+        stall.countDown();
+
+        assertEquals(List.of("inv-1"), ids(inFlight.get(5, TimeUnit.SECONDS)));
+        assertEquals(List.of(), ids(client.getInvitationsByGroup("team", "t1")));
+    }
+
+    private static InvitationCachingVortexClient client(FakeVortex upstream) {
+        return new InvitationCachingVortexClient("test", upstream, Duration.ofMinutes(1), false, Duration.ZERO, 1000);
+    }
+
+    private static List<String> ids(List<InvitationResult> results) {
+        return results.stream().map(InvitationResult::getId).sorted().toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One group's invitations, which the write calls change
+     */
+    private static final class FakeVortex extends ForwardingVortexClient {
+
+        private final Set<String> invitations = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private volatile CountDownLatch stall;
+
+        FakeVortex(String... invitationIds) {
+            super("test", null);
+            invitations.addAll(List.of(invitationIds));
+        }
+
+        @Override
+        public List<InvitationResult> getInvitationsByGroup(String groupType, String groupId) {
+            List<InvitationResult> results = invitations.stream().map(FakeVortex::invitation).toList();
+            CountDownLatch stall = this.stall;
+            if (stall != null) {
+                this.stall = null;
+                stalled.countDown();
+                await(stall);
+            }
+            return results;
+        }
+
+        @Override
+        public void revokeInvitation(String invitationId) {
+            invitations.remove(invitationId);
+        }
+
+        @Override
+        public InvitationResult reinvite(String invitationId) {
+            return invitation(invitationId);
+        }
+
+        private static InvitationResult invitation(String id) {
+            return new InvitationResult() {
+                @Override
+                public String getId() {
+                    return id;
+                }
+            };
+        }
+    }
+}